@@ -1,8 +1,94 @@
 package com.app.sportify_backend.config;
 
+import com.app.sportify_backend.models.OutboxEvent;
+import com.app.sportify_backend.models.PasswordResetOtp;
+import com.app.sportify_backend.models.Invitation;
+import com.app.sportify_backend.models.Pitch;
+import com.app.sportify_backend.models.PitchDailyRollup;
+import com.app.sportify_backend.models.PitchSlot;
+import com.app.sportify_backend.models.RefreshToken;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationSeries;
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.models.TeamStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
 
 @Configuration
 @EnableMongoAuditing
-public class MongoConfig {}
+@RequiredArgsConstructor
+@Slf4j
+public class MongoConfig implements SmartInitializingSingleton {
+
+    // auto-index-creation est désactivé : les index déclarés sur ces documents sont créés au démarrage
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            RefreshToken.class,
+            PasswordResetOtp.class,
+            PitchSlot.class,
+            Reservation.class,
+            Pitch.class,
+            Team.class,
+            TeamStats.class,
+            PitchDailyRollup.class,
+            ReservationSeries.class,
+            OutboxEvent.class
+    );
+
+    // Documents avec @Version : ceux écrits avant son ajout n'ont pas encore de version
+    private static final List<Class<?>> VERSIONED_DOCUMENTS = List.of(
+            Reservation.class,
+            Team.class,
+            Invitation.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    // Avant les autres traitements de démarrage qui s'appuient sur ces index
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> documentType : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(documentType);
+            resolver.resolveIndexFor(documentType).forEach(indexOps::createIndex);
+            log.info("Index vérifiés pour {}", documentType.getSimpleName());
+        }
+    }
+
+    // Sans version, save() traiterait le document comme nouveau et tenterait une insertion.
+    // Exécuté une fois les singletons créés, avant le démarrage du serveur web : aucune requête
+    // ne peut sauvegarder un document encore sans version (ApplicationReadyEvent arrive trop tard)
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillVersions();
+    }
+
+    void backfillVersions() {
+        for (Class<?> documentType : VERSIONED_DOCUMENTS) {
+            long updated = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    documentType
+            ).getModifiedCount();
+            if (updated > 0) {
+                log.info("Version initialisée pour {} documents {}", updated, documentType.getSimpleName());
+            }
+        }
+    }
+}
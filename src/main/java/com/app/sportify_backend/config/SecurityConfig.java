@@ -1,7 +1,9 @@
 package com.app.sportify_backend.config;
 
 import com.app.sportify_backend.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -21,8 +23,9 @@ public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength) {
+        // Les hash d'un coût inférieur sont mis à niveau à la prochaine connexion
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -34,6 +37,8 @@ public class SecurityConfig {
                         .allowedOriginPatterns("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        // Lu par le front pour demander la page suivante
+                        .exposedHeaders("X-Next-Cursor")
                         .allowCredentials(false);
             }
         };
@@ -49,6 +54,8 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Fin d'une réponse en streaming : la requête d'origine a déjà été autorisée
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/uploads/**",
@@ -4,7 +4,7 @@ import com.app.sportify_backend.dto.CancelInvitationRequest;
 import com.app.sportify_backend.dto.InvitationResponse;
 import com.app.sportify_backend.dto.InvitePlayerRequest;
 import com.app.sportify_backend.dto.InviteTeamRequest;
-import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.AuthPrincipal;
 import com.app.sportify_backend.services.InvitationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -32,7 +32,7 @@ public class InvitationController {
             @RequestBody InvitePlayerRequest request,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return invitationService.invitePlayer(
                 request.getTeamId(),
                 user.getId(),
@@ -47,7 +47,7 @@ public class InvitationController {
             @RequestBody InviteTeamRequest request,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
 
         return invitationService.inviteTeam(
                 request.getSenderTeamId(),
@@ -63,7 +63,7 @@ public class InvitationController {
             @PathVariable String id,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         invitationService.acceptInvitation(id, user.getId());
 
         return ResponseEntity.ok(Map.of(
@@ -79,7 +79,7 @@ public class InvitationController {
             @PathVariable String id,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         invitationService.refuseInvitation(id, user.getId());
 
         return ResponseEntity.ok(Map.of(
@@ -96,7 +96,7 @@ public class InvitationController {
             @RequestBody CancelInvitationRequest request,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         invitationService.cancelInvitation(
                 id,
                 user.getId(),
@@ -113,7 +113,7 @@ public class InvitationController {
     @GetMapping("/pending/player")
     @PreAuthorize("isAuthenticated()")
     public List<InvitationResponse> getPendingPlayerInvitations(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return invitationService.getPendingPlayerInvitations(user.getId());
     }
 
@@ -122,7 +122,7 @@ public class InvitationController {
     public List<InvitationResponse> getTeamMatchInvitations(
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return invitationService.getTeamMatchInvitations(user.getId());
     }
 
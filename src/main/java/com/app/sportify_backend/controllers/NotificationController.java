@@ -1,7 +1,7 @@
 package com.app.sportify_backend.controllers;
 
 import com.app.sportify_backend.dto.NotificationResponse;
-import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.AuthPrincipal;
 import com.app.sportify_backend.services.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,21 +22,21 @@ public class NotificationController {
     @GetMapping
     @PreAuthorize("isAuthenticated()")
     public List<NotificationResponse> getMyNotifications(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return notificationService.getUserNotifications(user.getId());
     }
 
     @GetMapping("/unread")
     @PreAuthorize("isAuthenticated()")
     public List<NotificationResponse> getUnreadNotifications(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return notificationService.getUnreadNotifications(user.getId());
     }
 
     @GetMapping("/unread/count")
     @PreAuthorize("isAuthenticated()")
     public Map<String, Long> countUnread(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         long count = notificationService.countUnread(user.getId());
         return Map.of("count", count);
     }
@@ -48,7 +48,7 @@ public class NotificationController {
             @PathVariable String id,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         notificationService.markAsRead(id, user.getId());
     }
 
@@ -56,7 +56,7 @@ public class NotificationController {
     @ResponseStatus(HttpStatus.OK)
     @PreAuthorize("isAuthenticated()")
     public void markAllAsRead(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         notificationService.markAllAsRead(user.getId());
     }
 
@@ -67,7 +67,7 @@ public class NotificationController {
             @PathVariable String id,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         notificationService.deleteNotification(id, user.getId());
     }
 }
\ No newline at end of file
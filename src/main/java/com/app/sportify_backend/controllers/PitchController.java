@@ -1,16 +1,29 @@
 package com.app.sportify_backend.controllers;
 
+import com.app.sportify_backend.dto.ManagerStatsResponse;
+import com.app.sportify_backend.dto.PitchAvailabilityResponse;
 import com.app.sportify_backend.dto.ReservationResponse;
+import com.app.sportify_backend.models.ExportFormat;
 import com.app.sportify_backend.models.Pitch;
-import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.StatsGranularity;
+import com.app.sportify_backend.security.AuthPrincipal;
+import com.app.sportify_backend.services.ManagerStatsService;
 import com.app.sportify_backend.services.PitchService;
+import com.app.sportify_backend.services.ReservationExportService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,6 +33,8 @@ import java.util.Map;
 public class PitchController {
 
     private final PitchService pitchService;
+    private final ManagerStatsService managerStatsService;
+    private final ReservationExportService reservationExportService;
 
     @GetMapping
     public ResponseEntity<List<Pitch>> getAllPitches() {
@@ -39,6 +54,26 @@ public class PitchController {
         return ResponseEntity.ok(pitches);
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<List<PitchAvailabilityResponse>> getAvailability(
+            @RequestParam List<String> pitchIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer slotMinutes
+    ) {
+        return ResponseEntity.ok(pitchService.getAvailability(pitchIds, from, to, slotMinutes));
+    }
+
+    @GetMapping("/free")
+    public ResponseEntity<List<Pitch>> findFreePitches(
+            @RequestParam String city,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day,
+            @RequestParam @DateTimeFormat(pattern = "HH:mm") LocalTime time,
+            @RequestParam(defaultValue = "60") int duration
+    ) {
+        return ResponseEntity.ok(pitchService.findFreePitches(city, day, time, duration));
+    }
+
     @GetMapping("/{pitchId}")
     public ResponseEntity<Pitch> getPitchById(@PathVariable String pitchId) {
         Pitch pitch = pitchService.getPitchById(pitchId);
@@ -110,7 +145,7 @@ public class PitchController {
     public ResponseEntity<Map<String, Long>> getTodayMatchesCount(
             @PathVariable String pitchId,
             Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         long count = pitchService.getTodayMatchesCount(pitchId, user.getId() );
         return ResponseEntity.ok(Map.of("todayMatchesCount", count));
     }
@@ -137,7 +172,46 @@ public class PitchController {
             @PathVariable String pitchId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return ResponseEntity.ok(pitchService.getWeeklyStats(pitchId, user.getId()));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{pitchId}/stats")
+    public ResponseEntity<ManagerStatsResponse> getStats(
+            @PathVariable String pitchId,
+            @RequestParam(required = false) StatsGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(managerStatsService.getStats(pitchId, user.getId(), granularity, from, to));
+    }
+
+    @GetMapping("/{pitchId}/reservations/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @PathVariable String pitchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<ReservationStatus> status,
+            @RequestParam(required = false) ExportFormat format,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        ExportFormat effectiveFormat = format != null ? format : ExportFormat.CSV;
+        StreamingResponseBody body = reservationExportService.export(pitchId, user.getId(), from, to, status, effectiveFormat);
+
+        String filename = "reservations-" + pitchId
+                + (from != null ? "-" + from : "")
+                + (to != null ? "-" + to : "")
+                + (effectiveFormat == ExportFormat.CSV ? ".csv" : ".ndjson");
+        MediaType contentType = effectiveFormat == ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
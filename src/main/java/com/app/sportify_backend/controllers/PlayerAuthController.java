@@ -6,6 +6,7 @@ import com.app.sportify_backend.dto.UpdateProfileRequest;
 import com.app.sportify_backend.models.User;
 import com.app.sportify_backend.repositories.UserRepository;
 import com.app.sportify_backend.security.JwtService;
+import com.app.sportify_backend.security.RefreshTokenService;
 import com.app.sportify_backend.services.PlayerAuthService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -25,6 +26,7 @@ public class PlayerAuthController {
 
     private final PlayerAuthService playerAuthService;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
 
@@ -57,10 +59,7 @@ public class PlayerAuthController {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
-        String refreshToken = jwtService.generateRefreshToken(user);
-
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+        String refreshToken = refreshTokenService.issue(user.getId(), request.getDeviceId());
 
         return ResponseEntity.ok(Map.of(
                 "accessToken", accessToken,
@@ -71,7 +70,8 @@ public class PlayerAuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<Map<String, String>> logout(
-            @RequestHeader("Authorization") String authHeader
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody(required = false) Map<String, String> body
     ) {
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             return ResponseEntity.badRequest()
@@ -84,8 +84,13 @@ public class PlayerAuthController {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
-        user.setRefreshToken(null);
-        userRepository.save(user);
+        // Sans refresh token précisé, toutes les sessions de l'utilisateur sont fermées
+        String refreshToken = body != null ? body.get("refreshToken") : null;
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        } else {
+            refreshTokenService.revokeAll(user.getId());
+        }
 
         return ResponseEntity.ok(
                 Map.of("message", "Déconnexion réussie")
@@ -147,28 +152,26 @@ public class PlayerAuthController {
             return ResponseEntity.badRequest().body("Refresh token manquant");
         }
 
+        RefreshTokenService.Rotation rotation;
         try {
-            String email = jwtService.extractEmail(refreshToken);
-
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
-            // Vérifier que le refresh token est valide
-            if (!jwtService.isTokenValid(refreshToken)) {
-                return ResponseEntity.status(403).body("Refresh token invalide");
-            }
-
-            // Générer un nouveau access token
-            String newAccessToken = jwtService.generateToken(user);
-
-            return ResponseEntity.ok(Map.of(
-                    "accessToken", newAccessToken,
-                    "refreshToken", refreshToken
-            ));
-
+            rotation = refreshTokenService.rotate(refreshToken);
         } catch (Exception e) {
             return ResponseEntity.status(403).body("Refresh token expiré ou invalide");
         }
+
+        User user = userRepository.findById(rotation.userId()).orElse(null);
+        if (user == null) {
+            refreshTokenService.revokeAll(rotation.userId());
+            return ResponseEntity.status(403).body("Refresh token invalide");
+        }
+
+        // Générer un nouveau access token
+        String newAccessToken = jwtService.generateToken(user);
+
+        return ResponseEntity.ok(Map.of(
+                "accessToken", newAccessToken,
+                "refreshToken", rotation.refreshToken()
+        ));
     }
 
     @GetMapping("/users/{id}")
@@ -1,10 +1,14 @@
 package com.app.sportify_backend.controllers;
 
 import com.app.sportify_backend.dto.CreateReservationRequest;
+import com.app.sportify_backend.dto.CreateReservationSeriesRequest;
+import com.app.sportify_backend.dto.CursorPage;
 import com.app.sportify_backend.dto.ReservationResponse;
+import com.app.sportify_backend.dto.ReservationSeriesResponse;
 import com.app.sportify_backend.dto.TeamStatsResponse;
 import com.app.sportify_backend.dto.UpdateScoreRequest;
-import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.AuthPrincipal;
+import com.app.sportify_backend.services.ReservationSeriesService;
 import com.app.sportify_backend.services.ReservationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -22,13 +26,14 @@ import java.util.Map;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationSeriesService reservationSeriesService;
 
     @PostMapping("/create")
     public ResponseEntity<ReservationResponse> createReservation(
             @RequestBody CreateReservationRequest request,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         ReservationResponse response = reservationService.createReservation(
                 request.getSenderTeamId(),
                 request.getAdverseTeamId(),
@@ -41,12 +46,58 @@ public class ReservationController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/series")
+    public ResponseEntity<ReservationSeriesResponse> createSeries(
+            @RequestBody CreateReservationSeriesRequest request,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        ReservationSeriesResponse response = reservationSeriesService.createSeries(
+                request.getSenderTeamId(),
+                request.getAdverseTeamId(),
+                request.getPitchId(),
+                request.getFirstDay(),
+                request.getHour(),
+                request.getDuration(),
+                request.getWeeks(),
+                user.getId()
+        );
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/series/{seriesId}")
+    public ResponseEntity<ReservationSeriesResponse> getSeries(
+            @PathVariable String seriesId,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(reservationSeriesService.getSeries(seriesId, user.getId()));
+    }
+
+    @PutMapping("/series/{seriesId}/confirm")
+    public ResponseEntity<ReservationSeriesResponse> confirmSeries(
+            @PathVariable String seriesId,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(reservationSeriesService.confirmSeries(seriesId, user.getId()));
+    }
+
+    @PutMapping("/series/{seriesId}/reject")
+    public ResponseEntity<ReservationSeriesResponse> rejectSeries(
+            @PathVariable String seriesId,
+            Authentication authentication
+    ) {
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(reservationSeriesService.rejectSeries(seriesId, user.getId()));
+    }
+
     @PutMapping("/{reservationId}/confirm")
     public ResponseEntity<Void> confirmReservation(
             @PathVariable String reservationId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         reservationService.confirmReservation(reservationId, user.getId());
         return ResponseEntity.ok().build();
     }
@@ -56,7 +107,7 @@ public class ReservationController {
             @PathVariable String reservationId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         reservationService.rejectReservation(reservationId, user.getId());
         return ResponseEntity.ok().build();
     }
@@ -66,7 +117,7 @@ public class ReservationController {
             @PathVariable String reservationId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         reservationService.cancelReservation(reservationId, user.getId());
         return ResponseEntity.ok().build();
     }
@@ -76,7 +127,7 @@ public class ReservationController {
             @RequestParam String pitchId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         List<ReservationResponse> reservations = reservationService
                 .getPendingReservations(pitchId, user.getId());
         return ResponseEntity.ok(reservations);
@@ -85,11 +136,19 @@ public class ReservationController {
     @GetMapping("/team/{teamId}")
     public ResponseEntity<List<ReservationResponse>> getTeamReservations(
             @PathVariable String teamId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
-        List<ReservationResponse> reservations = reservationService.getTeamReservations(teamId, user.getId());
-        return ResponseEntity.ok(reservations);
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        CursorPage<ReservationResponse> page = reservationService.getTeamReservations(teamId, user.getId(), cursor, size);
+
+        // Le corps reste une liste ; la page suivante est indiquée par l'en-tête X-Next-Cursor
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PutMapping("/{reservationId}/score")
@@ -98,7 +157,7 @@ public class ReservationController {
             Authentication authentication,
             @RequestBody UpdateScoreRequest request
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         ReservationResponse response = reservationService.updateScore(
                 reservationId,
                 request.getHomeScore(),
@@ -113,7 +172,7 @@ public class ReservationController {
             @PathVariable String reservationId,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         ReservationResponse reservation = reservationService.getReservationById(reservationId, user.getId());
         return ResponseEntity.ok(reservation);
     }
@@ -121,11 +180,18 @@ public class ReservationController {
     @GetMapping("/status/{status}")
     public ResponseEntity<List<ReservationResponse>> getReservationsByStatus(
             @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
-        List<ReservationResponse> reservations = reservationService.getReservationsByStatus(status, user.getId());
-        return ResponseEntity.ok(reservations);
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
+        CursorPage<ReservationResponse> page = reservationService.getReservationsByStatus(status, user.getId(), cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PutMapping("/{reservationId}/status")
@@ -134,7 +200,7 @@ public class ReservationController {
             @RequestParam String status,
             Authentication authentication
     ) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         ReservationResponse response = reservationService.updateReservationStatus(
                 reservationId,
                 status,
@@ -1,10 +1,14 @@
 package com.app.sportify_backend.controllers;
 
+import com.app.sportify_backend.dto.CursorPage;
+import com.app.sportify_backend.dto.LeaderboardEntryResponse;
 import com.app.sportify_backend.dto.TeamPlayerResponse;
+import com.app.sportify_backend.dto.TeamRankResponse;
 import com.app.sportify_backend.dto.UpdateTeamRequest;
 import com.app.sportify_backend.dto.PlayerTeamsResponse;
 import com.app.sportify_backend.models.Team;
-import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.AuthPrincipal;
+import com.app.sportify_backend.services.LeaderboardService;
 import com.app.sportify_backend.services.TeamService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
@@ -23,6 +27,7 @@ import java.util.List;
 public class TeamController {
 
     private final TeamService teamService;
+    private final LeaderboardService leaderboardService;
 
     @PostMapping(consumes = "multipart/form-data")
     public Team createTeam(
@@ -67,7 +72,7 @@ public class TeamController {
 
     @PutMapping("/activate/{teamId}/user/{userId}")
     public Team activateTeam(@PathVariable String teamId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         return teamService.activateTeam(teamId, user.getId());
     }
 
@@ -87,6 +92,30 @@ public class TeamController {
         return ResponseEntity.ok().body("Team deleted successfully");
     }
 
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntryResponse>> getLeaderboard(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPage<LeaderboardEntryResponse> page = leaderboardService.getLeaderboard(city, sort, cursor, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header("X-Next-Cursor", page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/{teamId}/rank")
+    public ResponseEntity<TeamRankResponse> getTeamRank(
+            @PathVariable String teamId,
+            @RequestParam(required = false) String sort
+    ) {
+        return ResponseEntity.ok(leaderboardService.getTeamRank(teamId, sort));
+    }
+
     @GetMapping("/{id}")
     public Team getTeamById(@PathVariable String id) {
         return teamService.getTeamById(id);
@@ -106,7 +135,7 @@ public class TeamController {
 
     @DeleteMapping("/{teamId}/leave")
     public ResponseEntity<?> leaveTeam(@PathVariable String teamId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        AuthPrincipal user = (AuthPrincipal) authentication.getPrincipal();
         teamService.leaveTeam(teamId, user.getId());
         return ResponseEntity.ok().body("Vous avez quitté l'équipe avec succès");
     }
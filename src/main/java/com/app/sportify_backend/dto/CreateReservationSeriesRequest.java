@@ -0,0 +1,27 @@
+package com.app.sportify_backend.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+
+@Data
+public class CreateReservationSeriesRequest {
+    private String senderTeamId;
+    private String adverseTeamId;
+    private String pitchId;
+
+    // Première occurrence, puis même jour de la semaine
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate firstDay;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.TIME)
+    private LocalTime hour;
+
+    private Integer duration;
+
+    // Nombre d'occurrences
+    private Integer weeks;
+}
@@ -0,0 +1,18 @@
+package com.app.sportify_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // Null quand il n'y a plus de page suivante
+    private String nextCursor;
+}
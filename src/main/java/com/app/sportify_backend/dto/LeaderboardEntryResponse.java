@@ -0,0 +1,47 @@
+package com.app.sportify_backend.dto;
+
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.models.TeamStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryResponse {
+
+    private long rank;
+
+    private String teamId;
+    private String teamName;
+    private String teamLogoUrl;
+    private String city;
+
+    private int played;
+    private int wins;
+    private int draws;
+    private int losses;
+    private int goalDifference;
+    private double winRate;
+    private int points;
+
+    public static LeaderboardEntryResponse from(TeamStats stats, Team team, long rank) {
+        return LeaderboardEntryResponse.builder()
+                .rank(rank)
+                .teamId(stats.getTeamId())
+                .teamName(team != null ? team.getName() : null)
+                .teamLogoUrl(team != null ? team.getLogoUrl() : null)
+                .city(stats.getCity())
+                .played(stats.getPlayed())
+                .wins(stats.getWins())
+                .draws(stats.getDraws())
+                .losses(stats.getLosses())
+                .goalDifference(stats.getGoalDifference())
+                .winRate(stats.getWinRate())
+                .points(stats.getPoints())
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.sportify_backend.dto;
+
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.StatsGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ManagerStatsResponse {
+
+    private String pitchId;
+    private StatsGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+
+    private List<PeriodStats> periods;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PeriodStats {
+        // Bornes incluses, rognées sur [from, to]
+        private LocalDate start;
+        private LocalDate end;
+
+        private long bookings;
+        private long bookedMinutes;
+        private long openMinutes;
+        private double occupancyRate; // en %
+        private double revenue;
+
+        // Toutes les réservations de la période par statut courant
+        @Builder.Default
+        private Map<ReservationStatus, Long> statusCounts = new EnumMap<>(ReservationStatus.class);
+    }
+}
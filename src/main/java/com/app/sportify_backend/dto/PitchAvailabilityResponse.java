@@ -0,0 +1,39 @@
+package com.app.sportify_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PitchAvailabilityResponse {
+
+    private String pitchId;
+    private String pitchName;
+
+    private int slotMinutes;
+
+    private List<DayAvailability> days;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class DayAvailability {
+        private LocalDate day;
+
+        // Null si le terrain est fermé ce jour-là. Le créneau i commence à openTime + i * slotMinutes
+        private LocalTime openTime;
+        private LocalTime closeTime;
+
+        // Un caractère par créneau : '1' libre, '0' occupé (ex: "1101111...")
+        private String slots;
+    }
+}
@@ -31,6 +31,7 @@ public class ReservationResponse {
     private LocalDate day;
     private LocalTime hour;
     private Integer duration;
+    private String seriesId;
 
     // Équipes
     private String senderTeamId;
@@ -71,6 +72,7 @@ public class ReservationResponse {
                 .day(reservation.getDay())
                 .hour(reservation.getHour())
                 .duration(reservation.getDuration())
+                .seriesId(reservation.getSeriesId())
                 .senderTeamId(reservation.getSenderTeamId())
                 .senderTeamName(reservation.getSenderTeamName())
                 .senderTeamLogoUrl(reservation.getSenderTeamLogoUrl())
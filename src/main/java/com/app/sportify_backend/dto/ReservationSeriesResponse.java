@@ -0,0 +1,73 @@
+package com.app.sportify_backend.dto;
+
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationSeries;
+import com.app.sportify_backend.models.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationSeriesResponse {
+
+    private String id;
+
+    private String pitchId;
+    private String pitchName;
+
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+    private LocalTime hour;
+    private Integer duration;
+    private int weeks;
+
+    private String senderTeamId;
+    private String senderTeamName;
+    private String adverseTeamId;
+    private String adverseTeamName;
+
+    private String senderId;
+    private String receiverId;
+
+    private ReservationStatus status;
+
+    private List<ReservationResponse> occurrences;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public static ReservationSeriesResponse from(ReservationSeries series, List<Reservation> occurrences) {
+        return ReservationSeriesResponse.builder()
+                .id(series.getId())
+                .pitchId(series.getPitchId())
+                .pitchName(series.getPitchName())
+                .firstDay(series.getFirstDay())
+                .lastDay(series.getLastDay())
+                .hour(series.getHour())
+                .duration(series.getDuration())
+                .weeks(series.getWeeks())
+                .senderTeamId(series.getSenderTeamId())
+                .senderTeamName(series.getSenderTeamName())
+                .adverseTeamId(series.getAdverseTeamId())
+                .adverseTeamName(series.getAdverseTeamName())
+                .senderId(series.getSenderId())
+                .receiverId(series.getReceiverId())
+                .status(series.getStatus())
+                .occurrences(occurrences.stream()
+                        .map(ReservationResponse::from)
+                        .collect(Collectors.toList()))
+                .createdAt(series.getCreatedAt())
+                .updatedAt(series.getUpdatedAt())
+                .build();
+    }
+}
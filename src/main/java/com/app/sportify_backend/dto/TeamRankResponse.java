@@ -0,0 +1,25 @@
+package com.app.sportify_backend.dto;
+
+import com.app.sportify_backend.models.LeaderboardSort;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TeamRankResponse {
+
+    private String teamId;
+    private String city;
+    private LeaderboardSort sort;
+
+    private long globalRank;
+
+    // Null si l'équipe n'a pas de ville
+    private Long cityRank;
+
+    private LeaderboardEntryResponse stats;
+}
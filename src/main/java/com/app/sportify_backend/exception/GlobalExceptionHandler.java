@@ -1,5 +1,6 @@
 package com.app.sportify_backend.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -81,6 +82,20 @@ public class GlobalExceptionHandler {
                 .body(error);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, String>> handleTooManyRequestsException(TooManyRequestsException ex) {
+        System.out.println("TooManyRequestsException: " + ex.getMessage());
+
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "TOO_MANY_REQUESTS");
+        error.put("message", ex.getMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .body(error);
+    }
+
     // ==================== EXCEPTIONS DE VALIDATION ====================
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -109,6 +124,20 @@ public class GlobalExceptionHandler {
                 .body(error);
     }
 
+    // Écriture concurrente sur un document versionné, hors des flux relancés automatiquement
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        System.out.println("OptimisticLockingFailureException: " + ex.getMessage());
+
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "INVALID_STATE");
+        error.put("message", "CONCURRENT_UPDATE");
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(error);
+    }
+
     // ==================== EXCEPTIONS RUNTIME ====================
 
     @ExceptionHandler(RuntimeException.class)
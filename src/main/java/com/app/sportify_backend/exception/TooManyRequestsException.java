@@ -0,0 +1,7 @@
+package com.app.sportify_backend.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
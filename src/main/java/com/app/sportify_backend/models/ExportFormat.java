@@ -0,0 +1,6 @@
+package com.app.sportify_backend.models;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -2,6 +2,7 @@ package com.app.sportify_backend.models;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -21,6 +22,9 @@ public class Invitation {
     @Id
     private String id;
 
+    @Version
+    private Long version;
+
     //COMMUN
     private String senderId;
     private String senderName;
@@ -0,0 +1,16 @@
+package com.app.sportify_backend.models;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum LeaderboardSort {
+    POINTS("points"),
+    WINS("wins"),
+    GOAL_DIFFERENCE("goalDifference"),
+    WIN_RATE("winRate");
+
+    // Champ de team_stats utilisé pour le classement
+    private final String field;
+}
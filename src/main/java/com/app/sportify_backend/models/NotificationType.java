@@ -7,10 +7,12 @@ public enum NotificationType {
     MATCH_COMPLETED,
     PLAYER_JOINED_MATCH,
     RESERVATION_REQUEST,
+    RESERVATION_SERIES_REQUEST,
     RESERVATION_CONFIRMED,
     RESERVATION_REJECTED,
     RESERVATION_CANCELLED,
     RESERVATION_REMINDER,
+    RESERVATION_EXPIRED,
     TEAM_LEFT
 }
 
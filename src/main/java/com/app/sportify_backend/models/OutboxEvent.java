@@ -0,0 +1,54 @@
+package com.app.sportify_backend.models;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Effet de bord à exécuter après une écriture métier (notifications, push WebSocket).
+ * Écrit par la requête, lu et exécuté par lots par OutboxDispatcher.
+ */
+@Document(collection = "outbox_events")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@CompoundIndex(
+        name = "status_available",
+        def = "{'status': 1, 'availableAt': 1}" )
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    private OutboxEventType type;
+
+    // Réservation, invitation... à l'origine de l'événement
+    private String aggregateId;
+
+    private Map<String, Object> payload;
+
+    private OutboxStatus status;
+    private int attempts;
+    private String lastError;
+
+    // Prochaine tentative possible
+    private LocalDateTime availableAt;
+
+    // Lot en cours de traitement : repris par un autre passage après lockedUntil
+    @Indexed
+    private String claimToken;
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime dispatchedAt;
+
+    // Les événements traités sont supprimés par Mongo
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,12 @@
+package com.app.sportify_backend.models;
+
+public enum OutboxEventType {
+    NOTIFICATION,
+    MATCH_SCORE_RECORDED,
+    INVITATION_CANCELLED,
+
+    // Recopie des champs dénormalisés, voir ChangePropagationService
+    TEAM_CHANGED,
+    PITCH_CHANGED,
+    USER_CHANGED
+}
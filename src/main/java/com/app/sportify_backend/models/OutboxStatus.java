@@ -0,0 +1,8 @@
+package com.app.sportify_backend.models;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    DISPATCHED,
+    FAILED
+}
@@ -0,0 +1,42 @@
+package com.app.sportify_backend.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "password_reset_otps")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PasswordResetOtp {
+
+    @Id
+    private String id;
+
+    // Un seul document par email : une nouvelle demande remplace le code précédent
+    @Indexed(unique = true)
+    private String email;
+
+    // SHA-256 de "email:code", jamais le code en clair
+    private String codeHash;
+
+    private int attempts;
+
+    private LocalDateTime expiresAt;
+
+    // Limitation des demandes : fenêtre glissante d'une heure
+    private LocalDateTime lastSentAt;
+    private LocalDateTime windowStart;
+    private int requestCount;
+
+    // Supprimé automatiquement par Mongo une fois la fenêtre de limitation terminée
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime purgeAt;
+}
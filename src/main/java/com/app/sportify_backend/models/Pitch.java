@@ -1,15 +1,26 @@
 package com.app.sportify_backend.models;
 
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Document(collection = "pitches")
 @Getter
 @Setter
+@CompoundIndex(
+        name = "city_active_price",
+        def = "{'city': 1, 'isActive': 1, 'price': 1}" )
 public class Pitch {
 
     @Id
@@ -34,4 +45,22 @@ public class Pitch {
 
     private LocalDateTime createdAt;
 
+    // Horaires par jour de semaine, en minutes depuis minuit. Vide : 08:00-22:00 tous les jours
+    private List<OpeningHours> openingHours;
+
+    // Fermetures exceptionnelles
+    private List<LocalDate> closedDays;
+
+    // Durée d'un créneau en minutes (30, 60, 90...). Null : 60
+    private Integer slotMinutes;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class OpeningHours {
+        private DayOfWeek dayOfWeek;
+        private int openMinute;
+        private int closeMinute;
+    }
 }
\ No newline at end of file
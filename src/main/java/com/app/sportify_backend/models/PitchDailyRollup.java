@@ -0,0 +1,45 @@
+package com.app.sportify_backend.models;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Compteurs d'un terrain pour une journée, tenus à jour par $inc à chaque changement de statut
+ * d'une réservation (rattachée au jour de son début). Les tableaux de bord gérant lisent ces
+ * documents au lieu des réservations.
+ */
+@Document(collection = "pitch_daily_rollups")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@CompoundIndex(
+        name = "pitch_day_unique",
+        def = "{'pitchId': 1, 'day': 1}",
+        unique = true )
+public class PitchDailyRollup {
+
+    @Id
+    private String id;
+
+    private String pitchId;
+    private LocalDate day;
+
+    // Nombre de réservations par statut courant
+    @Builder.Default
+    private Map<ReservationStatus, Integer> statusCounts = new EnumMap<>(ReservationStatus.class);
+
+    // Réservations confirmées ou jouées : nombre, minutes et chiffre d'affaires
+    private int bookings;
+    private long bookedMinutes;
+    private double revenue;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.app.sportify_backend.models;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Tranche de 5 minutes d'un terrain prise par une réservation confirmée.
+ * L'index unique (pitchId, day, slot) garantit qu'une tranche n'a qu'un seul propriétaire.
+ */
+@Document(collection = "pitch_slots")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@CompoundIndex(
+        name = "pitch_day_slot_unique",
+        def = "{'pitchId': 1, 'day': 1, 'slot': 1}",
+        unique = true )
+public class PitchSlot {
+
+    @Id
+    private String id;
+
+    private String pitchId;
+    private LocalDate day;
+
+    // Index de la tranche dans la journée : minute / 5
+    private int slot;
+
+    @Indexed
+    private String reservationId;
+
+    // Identifie une tentative de confirmation, pour ne défaire que ses propres insertions
+    @Indexed
+    private String claimId;
+
+    // Sert au nettoyage des tranches orphelines
+    @Indexed
+    private LocalDateTime createdAt;
+
+    // Les tranches passées sont supprimées par Mongo
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+}
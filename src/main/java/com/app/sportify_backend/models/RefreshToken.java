@@ -0,0 +1,44 @@
+package com.app.sportify_backend.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "refresh_tokens")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshToken {
+
+    @Id
+    private String id;
+
+    // Seul le SHA-256 du token est stocké
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    @Indexed
+    private String userId;
+
+    // Tous les tokens issus d'une même connexion partagent la même famille
+    @Indexed
+    private String familyId;
+
+    private String deviceId;
+
+    private LocalDateTime createdAt;
+
+    // Rempli quand le token a été échangé : une seconde utilisation révoque la famille
+    private LocalDateTime usedAt;
+
+    // Supprimé automatiquement par Mongo à expiration
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+}
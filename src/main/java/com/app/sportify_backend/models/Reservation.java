@@ -2,6 +2,8 @@ package com.app.sportify_backend.models;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -13,11 +15,42 @@ import java.time.LocalTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@CompoundIndex(
+        name = "pitch_day_status",
+        def = "{'pitchId': 1, 'day': 1, 'status': 1}" )
+@CompoundIndex(
+        name = "pitch_day_hour",
+        def = "{'pitchId': 1, 'day': 1, 'hour': 1}" )
+@CompoundIndex(
+        name = "status_day_hour",
+        def = "{'status': 1, 'day': 1, 'hour': 1}" )
+@CompoundIndex(
+        name = "sender_team_day_hour",
+        def = "{'senderTeamId': 1, 'cancelledBySender': 1, 'day': 1, 'hour': 1, '_id': 1}" )
+@CompoundIndex(
+        name = "adverse_team_day_hour",
+        def = "{'adverseTeamId': 1, 'day': 1, 'hour': 1, '_id': 1}" )
+@CompoundIndex(
+        name = "sender_status_day_hour",
+        def = "{'senderId': 1, 'status': 1, 'day': 1, 'hour': 1, '_id': 1}" )
+@CompoundIndex(
+        name = "receiver_status_day_hour",
+        def = "{'receiverId': 1, 'status': 1, 'day': 1, 'hour': 1, '_id': 1}" )
+@CompoundIndex(
+        name = "sender_team_status_day_hour",
+        def = "{'senderTeamId': 1, 'status': 1, 'day': 1, 'hour': 1, '_id': 1}" )
+@CompoundIndex(
+        name = "series_status_day",
+        def = "{'seriesId': 1, 'status': 1, 'day': 1}" )
 public class Reservation {
 
     @Id
     private String id;
 
+    // Incrémentée à chaque écriture : un save sur une copie périmée échoue au lieu d'écraser
+    @Version
+    private Long version;
+
     // Informations du terrain
     private String pitchId;
     private String pitchName;
@@ -30,6 +63,9 @@ public class Reservation {
     private LocalTime hour;
     private Integer duration; // durée en minutes
 
+    // Série hebdomadaire d'origine, null pour une réservation ponctuelle
+    private String seriesId;
+
     // Équipes
     private String senderTeamId;
     private String senderTeamName;
@@ -60,6 +96,9 @@ public class Reservation {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Dernière transition par lot qui a modifié la réservation, pour relire exactement ses lignes
+    private String transitionToken;
+
     @Data
     @Builder
     @AllArgsConstructor
@@ -0,0 +1,51 @@
+package com.app.sportify_backend.models;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Réservation hebdomadaire : même terrain, même heure, une occurrence par semaine de firstDay
+ * à lastDay. Chaque occurrence est une Reservation portant le seriesId ; le gérant confirme
+ * ou refuse la série en une fois.
+ */
+@Document(collection = "reservation_series")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationSeries {
+
+    @Id
+    private String id;
+
+    private String pitchId;
+    private String pitchName;
+
+    private LocalDate firstDay;
+    private LocalDate lastDay;
+    private LocalTime hour;
+    private Integer duration; // durée en minutes
+    private int weeks;
+
+    private String senderTeamId;
+    private String senderTeamName;
+    private String adverseTeamId;
+    private String adverseTeamName;
+
+    private String senderId; // owner de l'équipe sender
+
+    @Indexed
+    private String receiverId; // createdBy du pitch
+
+    // PENDING, puis CONFIRMED ou REJECTED pour toute la série
+    private ReservationStatus status;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
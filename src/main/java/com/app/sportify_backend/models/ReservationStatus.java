@@ -5,5 +5,6 @@ public enum ReservationStatus {
     CONFIRMED,
     REJECTED,
     CANCELLED,
-    COMPLETED
+    COMPLETED,
+    EXPIRED
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.app.sportify_backend.models;
+
+public enum StatsGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -3,6 +3,8 @@ package com.app.sportify_backend.models;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -20,11 +22,15 @@ public class Team {
     @Id
     private String id;
 
+    @Version
+    private Long version;
+
     private String name;
     private String city;
     private String logoUrl;
     private Boolean isActivated = false;
 
+    @Indexed
     private String ownerId;
     private String teamCode;
 
@@ -39,6 +45,7 @@ public class Team {
     @NoArgsConstructor
     @Builder
     public static class TeamMember {
+        @Indexed
         private String userId;
         private String userFirstName;
         private String userLastName;
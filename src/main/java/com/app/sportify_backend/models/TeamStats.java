@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -14,12 +16,42 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+// Classements : un index par clé de tri, global et par ville, départagé par teamId
+@CompoundIndex(
+        name = "leaderboard_points",
+        def = "{'points': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "city_leaderboard_points",
+        def = "{'city': 1, 'points': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "leaderboard_wins",
+        def = "{'wins': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "city_leaderboard_wins",
+        def = "{'city': 1, 'wins': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "leaderboard_goal_difference",
+        def = "{'goalDifference': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "city_leaderboard_goal_difference",
+        def = "{'city': 1, 'goalDifference': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "leaderboard_win_rate",
+        def = "{'winRate': -1, 'teamId': 1}" )
+@CompoundIndex(
+        name = "city_leaderboard_win_rate",
+        def = "{'city': 1, 'winRate': -1, 'teamId': 1}" )
 public class TeamStats {
 
     @Id
     private String id;
 
+    @Indexed(unique = true)
     private String teamId;
+
+    // Copie de Team.city pour les classements par ville
+    private String city;
+
     private int played;
     private int wins;
     private int draws;
@@ -28,5 +60,6 @@ public class TeamStats {
     private int goalsConceded;
     private int goalDifference;
     private double winRate;
+    private int points; // 3 par victoire, 1 par nul
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
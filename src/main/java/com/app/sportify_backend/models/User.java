@@ -44,15 +44,15 @@ public class User implements UserDetails {
 
     private boolean isEnabled = true;
 
+    // Incrémenté ($inc) pour révoquer tous les access tokens déjà émis ; les utilisateurs
+    // existants sont modifiés via UserUpdateService, jamais par un save complet
+    @JsonIgnore
+    private int tokenVersion;
+
     private LocalDateTime registrationDate;
     private LocalDateTime activationDate;
 
     private String profileImageUrl;
-    private String resetOtp;
-    private LocalDateTime otpExpiration;
-
-    @JsonIgnore
-    private String refreshToken;
 
     private List<String> teamIds = new ArrayList<>();
 
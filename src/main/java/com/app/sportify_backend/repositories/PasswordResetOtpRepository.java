@@ -0,0 +1,10 @@
+package com.app.sportify_backend.repositories;
+
+import com.app.sportify_backend.models.PasswordResetOtp;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface PasswordResetOtpRepository extends MongoRepository<PasswordResetOtp, String> {
+    Optional<PasswordResetOtp> findByEmail(String email);
+}
@@ -1,11 +1,9 @@
 package com.app.sportify_backend.repositories;
 import com.app.sportify_backend.models.Pitch;
-import com.app.sportify_backend.models.ReservationStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +14,7 @@ public interface PitchRepository extends MongoRepository<Pitch, String> {
     List<Pitch> findByCity(String city);
     List<Pitch> findByIsActiveTrue();
     List<Pitch> findByCityAndIsActiveTrue(String city);
+    List<Pitch> findByCityAndIsActiveTrueOrderByPriceAsc(String city);
 
     @Query("{'name': {$regex: ?0, $options: 'i'}}")
     List<Pitch> findByNameContainingIgnoreCase(String name);
@@ -27,6 +26,4 @@ public interface PitchRepository extends MongoRepository<Pitch, String> {
             "{'city': {$regex: ?0, $options: 'i'}}, " +
             "{'address': {$regex: ?0, $options: 'i'}}]}")
     List<Pitch> searchByQuery(String query);
-
-    long countByPitchIdAndStatusAndDay(String pitchId, ReservationStatus status, LocalDate day);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.app.sportify_backend.repositories;
+
+import com.app.sportify_backend.models.RefreshToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    long deleteByFamilyId(String familyId);
+    long deleteByUserId(String userId);
+}
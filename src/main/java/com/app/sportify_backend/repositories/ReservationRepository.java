@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,24 +23,20 @@ public interface ReservationRepository extends MongoRepository<Reservation, Stri
     );
     //List<Reservation> findByPitchId(String pitchId);
     //List<Reservation> findByPitchIdAndStatus(String pitchId, ReservationStatus status);
-    List<Reservation> findBySenderTeamIdAndCancelledBySenderFalse(String senderTeamId);
     //List<Reservation> findByReceiverIdAndCancelledByReceiverFalse(String receiverId);
     List<Reservation> findByReceiverIdAndStatus(String receiverId, ReservationStatus status);
-    List<Reservation> findByAdverseTeamId(String adverseTeamId);
     List<Reservation> findByPitchIdAndDay(String pitchId, LocalDate day);
+
+    @Query(value = "{ 'pitchId': { $in: ?0 }, 'status': ?1, 'day': { $gte: ?2, $lte: ?3 } }",
+            fields = "{ 'pitchId': 1, 'day': 1, 'hour': 1, 'duration': 1 }")
+    List<Reservation> findSlotsByPitchIdInAndStatusAndDayRange(
+            Collection<String> pitchIds,
+            ReservationStatus status,
+            LocalDate from,
+            LocalDate to
+    );
     List<Reservation> findByPitchIdAndStatusOrderByDayAscHourAsc(
             String pitchId,
             ReservationStatus status
     );
-    List<Reservation> findByStatusAndSenderIdOrReceiverId(
-            ReservationStatus status,
-            String senderId,
-            String receiverId
-    );
-
-    List<Reservation> findBySenderTeamIdAndStatus(String senderTeamId, ReservationStatus status);
-
-    @Query("{ 'status': ?0, $or: [ { 'senderTeamId': ?1 }, { 'adverseTeamId': ?1 } ] }")
-    List<Reservation> findAllCompletedByTeam(ReservationStatus status, String teamId);
-
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package com.app.sportify_backend.repositories;
 
 import com.app.sportify_backend.models.Role;
 import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.AuthPrincipal;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +16,11 @@ public interface UserRepository extends MongoRepository<User, String> {
     boolean existsByPhone(String phone);
     List<User> findByRoleAndIsEnabled(Role role, boolean isEnabled);
     List<User> findByRoleAndIsEnabledTrue(Role role);
+
+    @Query(value = "{ 'email': ?0 }",
+            fields = "{ 'email': 1, 'password': 1, 'role': 1, 'isEnabled': 1, 'tokenVersion': 1 }")
+    Optional<AuthPrincipal> findPrincipalByEmail(String email);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'tokenVersion': 1 }")
+    Optional<User> findTokenVersionById(String id);
 }
@@ -0,0 +1,61 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.models.Role;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Projection minimale d'un document "users" utilisée pour l'authentification.
+ * User reste le modèle d'écriture ; les controllers qui ont besoin du profil complet le chargent explicitement.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuthPrincipal implements UserDetails {
+
+    @Id
+    private String id;
+
+    private String email;
+
+    @JsonIgnore
+    private String password;
+
+    private Role role;
+
+    @Field("isEnabled")
+    private boolean enabled;
+
+    @JsonIgnore
+    private int tokenVersion;
+
+    @Override
+    @JsonIgnore
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (role == null) {
+            return Collections.emptyList();
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    @JsonIgnore
+    public String getUsername() {
+        return email;
+    }
+}
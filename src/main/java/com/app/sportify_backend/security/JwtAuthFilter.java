@@ -1,5 +1,6 @@
 package com.app.sportify_backend.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -18,6 +20,8 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionService tokenVersionService;
     private final UserDetailsServiceImpl userDetailsService;
 
     @Override
@@ -40,15 +44,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String token = authHeader.substring(7);
 
         try {
-            String email = jwtService.extractEmail(token);
+            // Signature vérifiée une seule fois, puis servie depuis le cache jusqu'à expiration
+            Claims claims = verifiedTokenCache.verify(token);
 
-            // Vérifier si token est valide
-            if (!jwtService.isTokenValid(token)) {
-                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token invalide");
-                return;
+            UserDetails userDetails;
+            if (jwtService.hasPrincipalClaims(claims)) {
+                String userId = claims.get(JwtService.CLAIM_USER_ID, String.class);
+                if (!tokenVersionService.isCurrent(userId, jwtService.extractTokenVersion(claims))) {
+                    response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token révoqué");
+                    return;
+                }
+                userDetails = jwtService.buildPrincipal(claims);
+            } else {
+                // Anciens tokens émis sans claims : chargement depuis Mongo
+                userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
             }
 
-            var userDetails = userDetailsService.loadUserByUsername(email);
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -58,6 +69,9 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             // 🔹 Token expiré → on renvoie 403 spécifique
             response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token expiré");
             return;
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Token invalide");
+            return;
         }
 
         filterChain.doFilter(request, response);
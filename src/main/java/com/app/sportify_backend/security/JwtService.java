@@ -1,6 +1,8 @@
 package com.app.sportify_backend.security;
 
+import com.app.sportify_backend.models.Role;
 import com.app.sportify_backend.models.User;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,23 +19,63 @@ public class JwtService {
     private static final SecretKey SECRET_KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24; // 24 heures
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_ENABLED = "enabled";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+
+    // Le parser est thread-safe : on le construit une seule fois
+    private static final JwtParser PARSER = Jwts.parser()
+            .verifyWith(SECRET_KEY)
+            .build();
+
     public String generateToken(User user) {
         return Jwts.builder()
                 .setSubject(user.getEmail())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole() != null ? user.getRole().name() : null)
+                .claim(CLAIM_ENABLED, user.isEnabled())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Vérifie la signature et l'expiration du token en une seule passe.
+     * Lève ExpiredJwtException / JwtException si le token n'est pas valide.
+     */
+    public Claims parseClaims(String token) {
+        return PARSER.parseSignedClaims(token).getPayload();
+    }
+
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null;
+    }
+
+    // Principal léger reconstruit depuis les claims, sans passer par Mongo
+    public AuthPrincipal buildPrincipal(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Boolean enabled = claims.get(CLAIM_ENABLED, Boolean.class);
+
+        return AuthPrincipal.builder()
+                .id(claims.get(CLAIM_USER_ID, String.class))
+                .email(claims.getSubject())
+                .role(role != null ? Role.valueOf(role) : null)
+                .enabled(enabled == null || enabled)
+                .tokenVersion(extractTokenVersion(claims))
+                .build();
+    }
+
+    public int extractTokenVersion(Claims claims) {
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        return version != null ? version : 0;
+    }
+
     public String extractEmail(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            return claims.getSubject();
+            return parseClaims(token).getSubject();
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
             return e.getClaims().getSubject();
         } catch (Exception e) {
@@ -43,22 +85,10 @@ public class JwtService {
 
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(SECRET_KEY)
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
-
-    public String generateRefreshToken(User user) {
-        return Jwts.builder()
-                .setSubject(user.getEmail())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 7)) // 7 jours
-                .signWith(SECRET_KEY, SignatureAlgorithm.HS256)
-                .compact();
-    }
 }
@@ -0,0 +1,102 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.exception.UnauthorizedException;
+import com.app.sportify_backend.models.RefreshToken;
+import com.app.sportify_backend.repositories.RefreshTokenRepository;
+import com.app.sportify_backend.utils.HashUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final long VALIDITY_DAYS = 7;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public record Rotation(String userId, String refreshToken) {}
+
+    //---------------------ISSUE--------------------------------------------------------------------------------------
+    public String issue(String userId, String deviceId) {
+        return issueInFamily(userId, UUID.randomUUID().toString(), deviceId);
+    }
+
+    //---------------------ROTATE-------------------------------------------------------------------------------------
+    public Rotation rotate(String rawToken) {
+        String tokenHash = HashUtils.sha256(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Consommation atomique : un seul appelant peut échanger un token donné
+        RefreshToken consumed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(tokenHash)
+                        .and("usedAt").is(null)
+                        .and("expiresAt").gt(now)),
+                new Update().set("usedAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                RefreshToken.class
+        );
+
+        if (consumed == null) {
+            refreshTokenRepository.findByTokenHash(tokenHash)
+                    .filter(token -> token.getUsedAt() != null)
+                    .ifPresent(this::revokeReusedFamily);
+            throw new UnauthorizedException("Refresh token expiré ou invalide");
+        }
+
+        String next = issueInFamily(consumed.getUserId(), consumed.getFamilyId(), consumed.getDeviceId());
+        return new Rotation(consumed.getUserId(), next);
+    }
+
+    //---------------------REVOKE-------------------------------------------------------------------------------------
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(HashUtils.sha256(rawToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    public void revokeAll(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    private void revokeReusedFamily(RefreshToken token) {
+        long deleted = refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+        log.warn("Réutilisation d'un refresh token détectée pour l'utilisateur {} : famille {} révoquée ({} tokens)",
+                token.getUserId(), token.getFamilyId(), deleted);
+    }
+
+    private String issueInFamily(String userId, String familyId, String deviceId) {
+        String rawToken = generateRawToken();
+        LocalDateTime now = LocalDateTime.now();
+
+        refreshTokenRepository.insert(RefreshToken.builder()
+                .tokenHash(HashUtils.sha256(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .deviceId(deviceId)
+                .createdAt(now)
+                .expiresAt(now.plusDays(VALIDITY_DAYS))
+                .build());
+
+        return rawToken;
+    }
+
+    private String generateRawToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
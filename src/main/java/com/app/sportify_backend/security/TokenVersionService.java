@@ -0,0 +1,78 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.repositories.RefreshTokenRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Version courante des tokens par utilisateur. Un access token dont le claim "tv"
+ * ne correspond plus est considéré comme révoqué. Les versions sont gardées en mémoire
+ * quelques secondes pour ne pas interroger Mongo à chaque requête.
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    // Mise en cache pour un utilisateur supprimé : Caffeine ne garde pas les null, chaque requête
+    // portant son token relirait Mongo. Aucun token n'a une version négative.
+    private static final int MISSING_USER = -1;
+
+    private final UserRepository userRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final LoadingCache<String, Integer> versions;
+
+    public TokenVersionService(
+            UserRepository userRepository,
+            RefreshTokenRepository refreshTokenRepository,
+            MongoTemplate mongoTemplate,
+            @Value("${app.security.token-version.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.security.token-version.max-size:50000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(this::loadVersion);
+    }
+
+    public boolean isCurrent(String userId, int tokenVersion) {
+        int current = versions.get(userId);
+        return current != MISSING_USER && current == tokenVersion;
+    }
+
+    public void revokeTokens(String userId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("tokenVersion", 1),
+                User.class
+        );
+        refreshTokenRepository.deleteByUserId(userId);
+        versions.invalidate(userId);
+        log.info("Tokens révoqués pour l'utilisateur {}", userId);
+    }
+
+    public void evict(String userId) {
+        versions.invalidate(userId);
+    }
+
+    private Integer loadVersion(String userId) {
+        // Utilisateur supprimé : sentinelle en cache, le token est refusé
+        return userRepository.findTokenVersionById(userId)
+                .map(User::getTokenVersion)
+                .orElse(MISSING_USER);
+    }
+}
@@ -0,0 +1,40 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.models.User;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalide les caches de sécurité à chaque écriture d'un User via le repository
+ * (updateProfile, resetPassword, activation/désactivation manager, activateTeam...).
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener extends AbstractMongoEventListener<User> {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        evict(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Document source = event.getSource();
+        Object id = source.get("_id");
+        if (id != null) {
+            evict(id.toString());
+        }
+    }
+
+    private void evict(String userId) {
+        userDetailsService.evictUser(userId);
+        tokenVersionService.evict(userId);
+    }
+}
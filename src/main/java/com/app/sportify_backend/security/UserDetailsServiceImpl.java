@@ -1,23 +1,78 @@
 package com.app.sportify_backend.security;
 
 import com.app.sportify_backend.repositories.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
-@RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final Cache<String, AuthPrincipal> principals;
+
+    // Index secondaire id -> email de l'entrée en cache, pour évincer par id sans parcourir le cache
+    private final Map<String, String> emailsByUserId = new ConcurrentHashMap<>();
+
+    public UserDetailsServiceImpl(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                // Taille ou expiration : l'index est nettoyé dans le même thread, et seulement s'il
+                // désigne encore cette entrée (evictUser l'a déjà retiré pour une éviction explicite)
+                .executor(Runnable::run)
+                .removalListener((String email, AuthPrincipal principal, RemovalCause cause) -> {
+                    if (principal != null && cause.wasEvicted()) {
+                        emailsByUserId.remove(principal.getId(), email);
+                    }
+                })
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "security.principals");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email)
             throws UsernameNotFoundException {
 
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        return loadPrincipal(email);
+    }
+
+    public AuthPrincipal loadPrincipal(String email) {
+        return principals.get(email, key -> {
+            AuthPrincipal principal = userRepository.findPrincipalByEmail(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+            emailsByUserId.put(principal.getId(), key);
+            return principal;
+        });
+    }
+
+    // L'email peut avoir changé depuis la mise en cache : on évince par id
+    public void evictUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        String email = emailsByUserId.remove(userId);
+        if (email != null) {
+            principals.invalidate(email);
+        }
     }
 }
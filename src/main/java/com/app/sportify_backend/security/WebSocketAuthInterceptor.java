@@ -1,42 +1,68 @@
 package com.app.sportify_backend.security;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
+@RequiredArgsConstructor
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
-    @Autowired
-    private JwtService jwtService;
+    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersionService tokenVersionService;
+    private final UserDetailsServiceImpl userDetailsService;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
-        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+        if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
             String authHeader = accessor.getFirstNativeHeader("Authorization");
 
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                String email = jwtService.extractEmail(token);
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                throw new MessageDeliveryException(message, "Token manquant");
+            }
 
-                UsernamePasswordAuthenticationToken auth =
-                        new UsernamePasswordAuthenticationToken(
-                                email, null, List.of()
-                        );
+            AuthPrincipal principal = authenticate(authHeader.substring(7), message);
 
-                accessor.setUser(auth);
-            }
+            // Le nom du principal est l'id : convertAndSendToUser adresse les utilisateurs par id
+            UsernamePasswordAuthenticationToken auth =
+                    new UsernamePasswordAuthenticationToken(
+                            principal.getId(), null, principal.getAuthorities()
+                    );
+            auth.setDetails(principal);
+
+            accessor.setUser(auth);
         }
         return message;
     }
-}
 
+    private AuthPrincipal authenticate(String token, Message<?> message) {
+        try {
+            Claims claims = verifiedTokenCache.verify(token);
+
+            if (!jwtService.hasPrincipalClaims(claims)) {
+                return userDetailsService.loadPrincipal(claims.getSubject());
+            }
+
+            AuthPrincipal principal = jwtService.buildPrincipal(claims);
+            if (!tokenVersionService.isCurrent(principal.getId(), principal.getTokenVersion())) {
+                throw new MessageDeliveryException(message, "Token révoqué");
+            }
+            return principal;
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            throw new MessageDeliveryException(message, "Token invalide");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.sportify_backend.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions STOMP ouvertes, par id utilisateur. Alimenté par les événements
+ * de connexion / déconnexion, il permet de ne pas envoyer de messages
+ * aux utilisateurs hors ligne.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionRegistry {
+
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, String> userBySession = new ConcurrentHashMap<>();
+
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.connected-users", sessionsByUser, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("websocket.sessions", userBySession, Map::size)
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+
+        if (user != null && sessionId != null) {
+            register(user.getName(), sessionId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    // compute est atomique par clé : l'entrée disparaît avec la dernière session
+    public void register(String userId, String sessionId) {
+        userBySession.put(sessionId, userId);
+        sessionsByUser.compute(userId, (key, sessions) -> {
+            Set<String> updated = sessions != null ? sessions : ConcurrentHashMap.<String>newKeySet();
+            updated.add(sessionId);
+            return updated;
+        });
+    }
+
+    public void unregister(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        String userId = userBySession.remove(sessionId);
+        if (userId == null) {
+            return;
+        }
+        sessionsByUser.computeIfPresent(userId, (key, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    public boolean isOnline(String userId) {
+        return userId != null && sessionsByUser.containsKey(userId);
+    }
+
+    public Set<String> getSessions(String userId) {
+        Set<String> sessions = sessionsByUser.get(userId);
+        return sessions != null ? Set.copyOf(sessions) : Set.of();
+    }
+
+    public int getConnectedUserCount() {
+        return sessionsByUser.size();
+    }
+
+    public int getSessionCount() {
+        return userBySession.size();
+    }
+}
@@ -0,0 +1,221 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Recopie les champs dénormalisés (noms, logos, images) après la modification d'une équipe,
+ * d'un terrain ou d'un profil, hors du thread de la requête. La modification est enregistrée
+ * dans outbox_events et exécutée par OutboxDispatcher : un redémarrage ne perd aucune
+ * propagation. Chaque exécution relit l'entité : deux modifications rapprochées convergent
+ * vers la dernière valeur, quel que soit l'ordre d'exécution. Seuls les documents encore
+ * périmés sont réécrits, par lots d'identifiants bornés.
+ */
+@Service
+public class ChangePropagationService {
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxService outboxService;
+    private final int batchSize;
+    private final Timer lag;
+    private final Counter documents;
+
+    public ChangePropagationService(
+            MongoTemplate mongoTemplate,
+            OutboxService outboxService,
+            MeterRegistry meterRegistry,
+            @Value("${app.propagation.batch-size:500}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.outboxService = outboxService;
+        this.batchSize = batchSize;
+
+        this.lag = Timer.builder("propagation.lag")
+                .description("Délai entre une modification et la mise à jour de toutes ses copies")
+                .register(meterRegistry);
+        this.documents = Counter.builder("propagation.documents")
+                .description("Documents dont une copie a été rafraîchie")
+                .register(meterRegistry);
+    }
+
+    private record Target(Class<?> collection, Criteria stale, Update update) {}
+
+    //---------------------CHANGES------------------------------------------------------------------------------------
+    public void teamChanged(String teamId) {
+        outboxService.publish(OutboxEventType.TEAM_CHANGED, teamId, Map.of());
+    }
+
+    public void pitchChanged(String pitchId) {
+        outboxService.publish(OutboxEventType.PITCH_CHANGED, pitchId, Map.of());
+    }
+
+    public void userChanged(String userId) {
+        outboxService.publish(OutboxEventType.USER_CHANGED, userId, Map.of());
+    }
+
+    // Appelé par OutboxDispatcher ; rejouable sans risque puisque l'entité est relue
+    void propagate(OutboxEvent event) {
+        switch (event.getType()) {
+            case TEAM_CHANGED -> propagateTeam(event.getAggregateId());
+            case PITCH_CHANGED -> propagatePitch(event.getAggregateId());
+            case USER_CHANGED -> propagateUser(event.getAggregateId());
+            default -> throw new IllegalArgumentException("UNSUPPORTED_EVENT_TYPE");
+        }
+        lag.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    //---------------------TEAM---------------------------------------------------------------------------------------
+    void propagateTeam(String teamId) {
+        Team team = mongoTemplate.findById(teamId, Team.class);
+        if (team == null) {
+            return;
+        }
+
+        List<Target> targets = new ArrayList<>();
+        targets.add(copy(Reservation.class, "senderTeamId", teamId, fields(
+                "senderTeamName", team.getName(), "senderTeamLogoUrl", team.getLogoUrl())));
+        targets.add(copy(Reservation.class, "adverseTeamId", teamId, fields(
+                "adverseTeamName", team.getName(), "adverseTeamLogoUrl", team.getLogoUrl())));
+        targets.add(copy(ReservationSeries.class, "senderTeamId", teamId, fields(
+                "senderTeamName", team.getName())));
+        targets.add(copy(ReservationSeries.class, "adverseTeamId", teamId, fields(
+                "adverseTeamName", team.getName())));
+        targets.add(copy(Invitation.class, "teamId", teamId, fields(
+                "teamName", team.getName(), "teamLogoUrl", team.getLogoUrl())));
+        targets.add(copy(Invitation.class, "senderTeamId", teamId, fields(
+                "senderTeamName", team.getName(), "senderTeamLogoUrl", team.getLogoUrl())));
+        targets.add(copy(Invitation.class, "receiverTeamId", teamId, fields(
+                "receiverTeamName", team.getName(), "receiverTeamLogoUrl", team.getLogoUrl())));
+        targets.add(copy(TeamStats.class, "teamId", teamId, fields(
+                "city", team.getCity())));
+
+        apply(targets);
+    }
+
+    //---------------------PITCH--------------------------------------------------------------------------------------
+    // Le prix n'est pas recopié : celui d'une réservation est celui du moment de la demande
+    void propagatePitch(String pitchId) {
+        Pitch pitch = mongoTemplate.findById(pitchId, Pitch.class);
+        if (pitch == null) {
+            return;
+        }
+
+        apply(List.of(
+                copy(Reservation.class, "pitchId", pitchId, fields(
+                        "pitchName", pitch.getName(),
+                        "pitchAddress", pitch.getAddress(),
+                        "pitchImageUrl", pitch.getImageUrl())),
+                copy(ReservationSeries.class, "pitchId", pitchId, fields(
+                        "pitchName", pitch.getName()))
+        ));
+    }
+
+    //---------------------USER---------------------------------------------------------------------------------------
+    // Copies dans des tableaux : l'opérateur positionnel $ vise l'élément trouvé par $elemMatch
+    void propagateUser(String userId) {
+        User user = mongoTemplate.findById(userId, User.class);
+        if (user == null) {
+            return;
+        }
+
+        String playerName = user.getFirstname() + " " + user.getLastname();
+        apply(List.of(
+                arrayCopy(Team.class, "members", "userId", userId, fields(
+                        "userFirstName", user.getFirstname(),
+                        "userLastName", user.getLastname())),
+                arrayCopy(Formation.class, "playerPositions", "userId", userId, fields(
+                        "playerName", playerName,
+                        "playerImageUrl", user.getProfileImageUrl()))
+        ));
+    }
+
+    //---------------------BATCHES------------------------------------------------------------------------------------
+    /**
+     * Pour chaque cible : lecture d'au plus batchSize identifiants périmés, puis un updateMany
+     * sur ces identifiants, jusqu'à épuisement. Le filtre "périmé" est rejoué dans l'update :
+     * un document déjà rafraîchi par une propagation concurrente n'est pas réécrit.
+     */
+    private void apply(List<Target> targets) {
+        for (Target target : targets) {
+            // Un save concurrent sur une copie lue avant la propagation échoue et relit le document
+            Update update = isVersioned(target.collection()) ? target.update().inc("version", 1) : target.update();
+            while (true) {
+                Query staleIds = Query.query(target.stale()).limit(batchSize);
+                staleIds.fields().include("_id");
+                List<Object> ids = mongoTemplate.find(staleIds, Document.class,
+                                mongoTemplate.getCollectionName(target.collection())).stream()
+                        .map(document -> document.get("_id"))
+                        .collect(Collectors.toList());
+                if (ids.isEmpty()) {
+                    break;
+                }
+
+                long modified = mongoTemplate.updateMulti(
+                        Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), target.stale())),
+                        update,
+                        target.collection()
+                ).getModifiedCount();
+                documents.increment(modified);
+
+                if (ids.size() < batchSize) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private boolean isVersioned(Class<?> collection) {
+        return mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(collection)
+                .hasVersionProperty();
+    }
+
+    private static Target copy(Class<?> collection, String keyField, String id, Map<String, Object> values) {
+        List<Criteria> differs = new ArrayList<>();
+        Update update = new Update();
+        values.forEach((field, value) -> {
+            differs.add(Criteria.where(field).ne(value));
+            update.set(field, value);
+        });
+        Criteria stale = Criteria.where(keyField).is(id).orOperator(differs);
+        return new Target(collection, stale, update);
+    }
+
+    private static Target arrayCopy(
+            Class<?> collection, String arrayField, String keyField, String id, Map<String, Object> values) {
+        List<Criteria> differs = new ArrayList<>();
+        Update update = new Update();
+        values.forEach((field, value) -> {
+            differs.add(Criteria.where(field).ne(value));
+            update.set(arrayField + ".$." + field, value);
+        });
+        Criteria stale = Criteria.where(arrayField).elemMatch(Criteria.where(keyField).is(id).orOperator(differs));
+        return new Target(collection, stale, update);
+    }
+
+    private static Map<String, Object> fields(Object... pairs) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            values.put((String) pairs[i], pairs[i + 1]);
+        }
+        return values;
+    }
+
+}
@@ -6,6 +6,9 @@ import com.app.sportify_backend.repositories.InvitationRepository;
 import com.app.sportify_backend.repositories.TeamRepository;
 import com.app.sportify_backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,12 +21,15 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class InvitationService {
 
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
     private final InvitationRepository invitationRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
+    private final OptimisticRetryService optimisticRetryService;
+    private final UserUpdateService userUpdateService;
 
     //---------------------INVITE PLAYER--------------------------------------------------------------------------------
     @Transactional
@@ -133,6 +139,12 @@ public class InvitationService {
     //-------------------------------ACCEPT INVITATION------------------------------------------------------------------
     @Transactional
     public void acceptInvitation(String invitationId, String userId) {
+        optimisticRetryService.run("invitation.accept", () -> doAcceptInvitation(invitationId, userId));
+    }
+
+    // Seul le passage de l'invitation à ACCEPTED est rejoué ici, l'ajout du membre a sa propre relance :
+    // s'il échoue malgré tout, l'invitation repasse PENDING pour pouvoir être acceptée à nouveau
+    private void doAcceptInvitation(String invitationId, String userId) {
 
         Invitation invitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new RuntimeException("INVITATION_NOT_FOUND"));
@@ -149,9 +161,18 @@ public class InvitationService {
 
             invitation.setStatus(InvitationStatus.ACCEPTED);
             invitation.setUpdatedAt(LocalDateTime.now());
-            invitationRepository.save(invitation);
+            Invitation accepted = invitationRepository.save(invitation);
+
+            Team team;
+            try {
+                team = joinTeam(accepted.getTeamId(), userId);
+            } catch (RuntimeException e) {
+                // Membre non ajouté (relances épuisées, équipe supprimée) : l'invitation redevient PENDING
+                revertToPending(accepted);
+                throw e;
+            }
 
-            acceptPlayerInvitation(invitation, userId);
+            acceptPlayerInvitation(accepted, team, userId);
             return;
         }
 
@@ -172,31 +193,47 @@ public class InvitationService {
         }
     }
 
-    //--------------------------NOTIFICATION ACCEPTATION PLAYER---------------------------------------------------------
-    private void acceptPlayerInvitation(Invitation invitation, String userId) {
-
-        Team team = teamRepository.findById(invitation.getTeamId())
-                .orElseThrow(() -> new RuntimeException("TEAM_NOT_FOUND"));
+    private Team joinTeam(String teamId, String userId) {
+        return optimisticRetryService.run("team.join", () -> {
+            Team current = teamRepository.findById(teamId)
+                    .orElseThrow(() -> new RuntimeException("TEAM_NOT_FOUND"));
 
-        boolean alreadyMember = team.getMembers().stream()
-                .anyMatch(m -> m.getUserId().equals(userId));
+            boolean alreadyMember = current.getMembers().stream()
+                    .anyMatch(m -> m.getUserId().equals(userId));
 
-        if (!alreadyMember) {
-            team.getMembers().add(
+            if (alreadyMember) {
+                return current;
+            }
+            current.getMembers().add(
                     Team.TeamMember.builder()
                             .userId(userId)
                             .role(MemberRole.MEMBER)
                             .build()
             );
-            teamRepository.save(team);
+            return teamRepository.save(current);
+        });
+    }
+
+    private void revertToPending(Invitation invitation) {
+        invitation.setStatus(InvitationStatus.PENDING);
+        invitation.setUpdatedAt(LocalDateTime.now());
+        try {
+            invitationRepository.save(invitation);
+        } catch (OptimisticLockingFailureException e) {
+            // Invitation modifiée entre-temps (annulée...) : son nouvel état prime
+            log.warn("Invitation {} acceptée sans ajout du membre, modifiée depuis", invitation.getId());
         }
+    }
+
+    //--------------------------NOTIFICATION ACCEPTATION PLAYER---------------------------------------------------------
+    private void acceptPlayerInvitation(Invitation invitation, Team team, String userId) {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("USER_NOT_FOUND"));
 
         if (!user.getTeamIds().contains(team.getId())) {
             user.getTeamIds().add(team.getId());
-            userRepository.save(user);
+            userUpdateService.update(userId, new Update().addToSet("teamIds", team.getId()));
         }
 
         Map<String, Object> data = new HashMap<>();
@@ -204,7 +241,7 @@ public class InvitationService {
         data.put("teamName", team.getName());
         data.put("teamLogo", team.getLogoUrl());
 
-        notificationService.send(
+        outboxService.publishNotification(
                 invitation.getSenderId(),
                 userId,
                 "Invitation acceptée",
@@ -231,7 +268,7 @@ public class InvitationService {
         data.put("receiverTeamName", receiverTeam.getName());
         data.put("receiverTeamLogo", receiverTeam.getLogoUrl());
 
-        notificationService.send(
+        outboxService.publishNotification(
                 invitation.getSenderId(),
                 receiverTeam.getOwnerId(),
                 "Invitation acceptée",
@@ -245,6 +282,10 @@ public class InvitationService {
     //--------------------------REFUSE INVITATION-----------------------------------------------------------------------
     @Transactional
     public void refuseInvitation(String invitationId, String userId) {
+        optimisticRetryService.run("invitation.refuse", () -> doRefuseInvitation(invitationId, userId));
+    }
+
+    private void doRefuseInvitation(String invitationId, String userId) {
 
         Invitation invitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new RuntimeException("INVITATION_NOT_FOUND"));
@@ -274,7 +315,7 @@ public class InvitationService {
             data.put("teamName", team.getName());
             data.put("teamLogo", team.getLogoUrl());
 
-            notificationService.send(
+            outboxService.publishNotification(
                     userId,
                     invitation.getSenderId(),
                     "Invitation refusée",
@@ -310,7 +351,7 @@ public class InvitationService {
             data.put("receiverTeamName", receiverTeam.getName());
             data.put("receiverTeamLogo", receiverTeam.getLogoUrl());
 
-            notificationService.send(
+            outboxService.publishNotification(
                     receiverTeam.getOwnerId(),
                     invitation.getSenderId(),
                     "Invitation refusée",
@@ -330,6 +371,10 @@ public class InvitationService {
             CancelReason reason,
             String message
     ) {
+        optimisticRetryService.run("invitation.cancel", () -> doCancelInvitation(invitationId, userId, reason, message));
+    }
+
+    private void doCancelInvitation(String invitationId, String userId, CancelReason reason, String message) {
 
         Invitation invitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new RuntimeException("INVITATION_NOT_FOUND"));
@@ -360,7 +405,7 @@ public class InvitationService {
 
         invitationRepository.save(invitation);
 
-        notificationService.sendInvitationCancelledNotification(
+        outboxService.publishInvitationCancelled(
                 invitation,
                 userId,
                 reason,
@@ -0,0 +1,160 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.CursorPage;
+import com.app.sportify_backend.dto.LeaderboardEntryResponse;
+import com.app.sportify_backend.dto.TeamRankResponse;
+import com.app.sportify_backend.exception.ResourceNotFoundException;
+import com.app.sportify_backend.models.LeaderboardSort;
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.models.TeamStats;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.utils.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Classements des équipes sur team_stats. Chaque clé de tri a son index (clé desc, teamId asc),
+ * global et par ville : les pages sont lues par curseur et un rang se calcule par deux comptages
+ * sur l'index, sans parcourir la collection.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final TeamRepository teamRepository;
+
+    //---------------------LEADERBOARD--------------------------------------------------------------------------------
+    public CursorPage<LeaderboardEntryResponse> getLeaderboard(String city, String sort, String cursor, Integer size) {
+        LeaderboardSort leaderboardSort = parseSort(sort);
+        String field = leaderboardSort.getField();
+        boolean hasCursor = cursor != null && !cursor.isBlank();
+        // Sans curseur ni taille, le classement complet est renvoyé comme avant la pagination
+        Integer pageSize = size == null && !hasCursor
+                ? null
+                : size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Criteria criteria = scope(city);
+        if (hasCursor) {
+            String[] last = KeysetCursor.decode(cursor, 2);
+            Object value = parseValue(leaderboardSort, last[0]);
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(
+                    Criteria.where(field).lt(value),
+                    Criteria.where(field).is(value).and("teamId").gt(last[1])
+            ));
+        }
+
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Order.desc(field), Sort.Order.asc("teamId")));
+        if (pageSize != null) {
+            query.limit(pageSize + 1);
+        }
+        List<TeamStats> stats = mongoTemplate.find(query, TeamStats.class);
+
+        String nextCursor = null;
+        if (pageSize != null && stats.size() > pageSize) {
+            stats = stats.subList(0, pageSize);
+            TeamStats last = stats.get(pageSize - 1);
+            nextCursor = KeysetCursor.encode(String.valueOf(valueOf(leaderboardSort, last)), last.getTeamId());
+        }
+        if (stats.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        // Le rang du premier élément suffit : les suivants se suivent dans l'ordre de l'index
+        long firstRank = rank(stats.get(0), leaderboardSort, city);
+        Map<String, Team> teams = teamRepository.findAllById(
+                        stats.stream().map(TeamStats::getTeamId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+
+        List<LeaderboardEntryResponse> entries = new ArrayList<>();
+        for (int i = 0; i < stats.size(); i++) {
+            TeamStats stat = stats.get(i);
+            entries.add(LeaderboardEntryResponse.from(stat, teams.get(stat.getTeamId()), firstRank + i));
+        }
+        return new CursorPage<>(entries, nextCursor);
+    }
+
+    //---------------------TEAM RANK----------------------------------------------------------------------------------
+    public TeamRankResponse getTeamRank(String teamId, String sort) {
+        LeaderboardSort leaderboardSort = parseSort(sort);
+
+        TeamStats stats = mongoTemplate.findOne(Query.query(Criteria.where("teamId").is(teamId)), TeamStats.class);
+        if (stats == null) {
+            throw new ResourceNotFoundException("Aucune statistique pour cette équipe");
+        }
+
+        long globalRank = rank(stats, leaderboardSort, null);
+        Long cityRank = stats.getCity() != null ? rank(stats, leaderboardSort, stats.getCity()) : null;
+        Team team = teamRepository.findById(teamId).orElse(null);
+
+        return TeamRankResponse.builder()
+                .teamId(teamId)
+                .city(stats.getCity())
+                .sort(leaderboardSort)
+                .globalRank(globalRank)
+                .cityRank(cityRank)
+                .stats(LeaderboardEntryResponse.from(stats, team, globalRank))
+                .build();
+    }
+
+    // Rang = équipes strictement devant + équipes à égalité avec un teamId plus petit + 1
+    private long rank(TeamStats stats, LeaderboardSort sort, String city) {
+        String field = sort.getField();
+        Object value = valueOf(sort, stats);
+
+        long ahead = mongoTemplate.count(
+                Query.query(scope(city).and(field).gt(value)), TeamStats.class);
+        long tiedAhead = mongoTemplate.count(
+                Query.query(scope(city).and(field).is(value).and("teamId").lt(stats.getTeamId())), TeamStats.class);
+
+        return ahead + tiedAhead + 1;
+    }
+
+    //---------------------HELPERS------------------------------------------------------------------------------------
+    private static Criteria scope(String city) {
+        return city != null && !city.isBlank() ? Criteria.where("city").is(city) : new Criteria();
+    }
+
+    private static LeaderboardSort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return LeaderboardSort.POINTS;
+        }
+        try {
+            return LeaderboardSort.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("INVALID_SORT");
+        }
+    }
+
+    private static Object valueOf(LeaderboardSort sort, TeamStats stats) {
+        return switch (sort) {
+            case POINTS -> stats.getPoints();
+            case WINS -> stats.getWins();
+            case GOAL_DIFFERENCE -> stats.getGoalDifference();
+            case WIN_RATE -> stats.getWinRate();
+        };
+    }
+
+    private static Object parseValue(LeaderboardSort sort, String value) {
+        try {
+            return sort == LeaderboardSort.WIN_RATE ? Double.parseDouble(value) : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+}
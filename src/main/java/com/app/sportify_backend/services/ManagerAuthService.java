@@ -6,9 +6,11 @@ import com.app.sportify_backend.models.Role;
 import com.app.sportify_backend.models.User;
 import com.app.sportify_backend.repositories.UserRepository;
 import com.app.sportify_backend.security.JwtService;
+import com.app.sportify_backend.security.PasswordHashingService;
+import com.app.sportify_backend.security.TokenVersionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,10 +30,12 @@ import java.nio.file.Paths;
 public class ManagerAuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final EmailService emailService;
     private final PitchService pitchService;
     private final JwtService jwtService;
+    private final TokenVersionService tokenVersionService;
+    private final UserUpdateService userUpdateService;
 
     public User registerManager(ManagerRegisterRequest request, MultipartFile image) throws IOException {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -47,7 +51,7 @@ public class ManagerAuthService {
         manager.setLastname(request.getLastname());
         manager.setEmail(request.getEmail());
         manager.setPhone(request.getPhone());
-        manager.setPassword(passwordEncoder.encode(request.getPassword()));
+        manager.setPassword(passwordHashingService.encode(request.getPassword()));
         manager.setRole(Role.MANAGER);
         manager.setRegistrationDate(LocalDateTime.now());
         manager.setEnabled(false);
@@ -116,7 +120,12 @@ public class ManagerAuthService {
             }
         }
 
-        User activatedManager = userRepository.save(manager);
+        userUpdateService.update(manager.getId(), new Update()
+                .set("isEnabled", true)
+                .set("activationDate", manager.getActivationDate())
+                .set("pitchId", manager.getPitchId())
+                .set("pendingPitch", manager.getPendingPitch()));
+        User activatedManager = manager;
 
         emailService.sendManagerActivationByAdminEmail(
                 manager.getEmail(),
@@ -146,7 +155,9 @@ public class ManagerAuthService {
 
         pitchService.deactivateManagerPitch(manager.getId());
 
-        User disabledManager = userRepository.save(manager);
+        userUpdateService.update(manager.getId(), Update.update("isEnabled", false));
+        User disabledManager = manager;
+        tokenVersionService.revokeTokens(manager.getId());
 
         emailService.sendManagerDeactivationEmail(
                 manager.getEmail(),
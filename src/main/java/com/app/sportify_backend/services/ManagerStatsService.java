@@ -0,0 +1,140 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.ManagerStatsResponse;
+import com.app.sportify_backend.models.Pitch;
+import com.app.sportify_backend.models.PitchDailyRollup;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.StatsGranularity;
+import com.app.sportify_backend.repositories.PitchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques d'un terrain pour son gérant : réservations, taux d'occupation et chiffre
+ * d'affaires par jour, semaine ou mois. Lues dans pitch_daily_rollups (un document par jour
+ * réservé, au plus 366) et regroupées en périodes côté Java, sans toucher aux réservations.
+ */
+@Service
+@RequiredArgsConstructor
+public class ManagerStatsService {
+
+    static final List<ReservationStatus> BOOKED = List.of(ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED);
+
+    private static final int MAX_DAYS = 366;
+
+    private final PitchRepository pitchRepository;
+    private final PitchScheduleService pitchScheduleService;
+    private final PitchRollupService pitchRollupService;
+
+    //---------------------STATS--------------------------------------------------------------------------------------
+    public ManagerStatsResponse getStats(
+            String pitchId,
+            String userId,
+            StatsGranularity granularity,
+            LocalDate from,
+            LocalDate to
+    ) {
+        Pitch pitch = getOwnedPitch(pitchId, userId);
+
+        StatsGranularity effectiveGranularity = granularity != null ? granularity : StatsGranularity.DAY;
+        LocalDate end = to != null ? to : defaultEnd(effectiveGranularity);
+        LocalDate start = from != null ? from : defaultStart(effectiveGranularity, end);
+
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("La date de fin doit être après la date de début");
+        }
+        if (start.plusDays(MAX_DAYS).isBefore(end.plusDays(1))) {
+            throw new IllegalArgumentException("Maximum " + MAX_DAYS + " jours par requête");
+        }
+
+        Map<LocalDate, PitchDailyRollup> rollups = new HashMap<>();
+        for (PitchDailyRollup rollup : pitchRollupService.getRollups(pitchId, start, end)) {
+            rollups.put(rollup.getDay(), rollup);
+        }
+
+        List<ManagerStatsResponse.PeriodStats> periods = new ArrayList<>();
+        ManagerStatsResponse.PeriodStats current = null;
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            LocalDate periodStart = periodStart(effectiveGranularity, day);
+            if (current == null || !periodStart(effectiveGranularity, current.getStart()).equals(periodStart)) {
+                current = ManagerStatsResponse.PeriodStats.builder().start(day).build();
+                periods.add(current);
+            }
+
+            current.setEnd(day);
+            current.setOpenMinutes(current.getOpenMinutes() + pitchScheduleService.templateFor(pitch, day).openMinutes());
+
+            PitchDailyRollup rollup = rollups.get(day);
+            if (rollup != null) {
+                current.setBookings(current.getBookings() + rollup.getBookings());
+                current.setBookedMinutes(current.getBookedMinutes() + rollup.getBookedMinutes());
+                current.setRevenue(current.getRevenue() + rollup.getRevenue());
+                if (rollup.getStatusCounts() != null) {
+                    Map<ReservationStatus, Long> counts = current.getStatusCounts();
+                    rollup.getStatusCounts().forEach((status, count) -> {
+                        if (count != null && count != 0) {
+                            counts.merge(status, (long) count, Long::sum);
+                        }
+                    });
+                }
+            }
+        }
+
+        for (ManagerStatsResponse.PeriodStats period : periods) {
+            period.setOccupancyRate(period.getOpenMinutes() == 0
+                    ? 0.0
+                    : Math.min(100.0, (double) period.getBookedMinutes() / period.getOpenMinutes() * 100));
+        }
+
+        return ManagerStatsResponse.builder()
+                .pitchId(pitchId)
+                .granularity(effectiveGranularity)
+                .from(start)
+                .to(end)
+                .periods(periods)
+                .build();
+    }
+
+    //---------------------HELPERS------------------------------------------------------------------------------------
+    public Pitch getOwnedPitch(String pitchId, String userId) {
+        Pitch pitch = pitchRepository.findById(pitchId)
+                .orElseThrow(() -> new RuntimeException("PITCH_NOT_FOUND"));
+
+        if (!pitch.getCreatedBy().equals(userId)) {
+            throw new RuntimeException("NOT_PITCH_OWNER");
+        }
+        return pitch;
+    }
+
+    private static LocalDate periodStart(StatsGranularity granularity, LocalDate day) {
+        return switch (granularity) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    // Par défaut : la semaine en cours par jour, les 4 dernières semaines, les 6 derniers mois
+    private static LocalDate defaultEnd(StatsGranularity granularity) {
+        LocalDate today = LocalDate.now();
+        return switch (granularity) {
+            case DAY, WEEK -> today.with(DayOfWeek.SUNDAY);
+            case MONTH -> today.withDayOfMonth(today.lengthOfMonth());
+        };
+    }
+
+    private static LocalDate defaultStart(StatsGranularity granularity, LocalDate end) {
+        return switch (granularity) {
+            case DAY -> end.with(DayOfWeek.MONDAY);
+            case WEEK -> end.with(DayOfWeek.MONDAY).minusWeeks(3);
+            case MONTH -> end.withDayOfMonth(1).minusMonths(5);
+        };
+    }
+}
@@ -3,6 +3,7 @@ package com.app.sportify_backend.services;
 import com.app.sportify_backend.dto.NotificationResponse;
 import com.app.sportify_backend.models.*;
 import com.app.sportify_backend.repositories.NotificationRepository;
+import com.app.sportify_backend.security.WebSocketSessionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
@@ -10,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,6 +22,7 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final WebSocketSessionRegistry sessionRegistry;
 
     public Notification send(
             String recipientId,
@@ -44,15 +47,50 @@ public class NotificationService {
 
         notification = notificationRepository.save(notification);
 
-        messagingTemplate.convertAndSendToUser(
-                recipientId,
-                "/queue/notifications",
-                toResponse(notification)
-        );
+        // Hors ligne : la notification est déjà persistée, rien à pousser
+        if (sessionRegistry.isOnline(recipientId)) {
+            messagingTemplate.convertAndSendToUser(
+                    recipientId,
+                    "/queue/notifications",
+                    toResponse(notification)
+            );
+        }
 
         return notification;
     }
 
+    // Persistées en un seul insertMany, puis poussées aux destinataires connectés
+    public List<Notification> sendAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        notifications.forEach(notification -> {
+            notification.setStatus(NotificationStatus.UNREAD);
+            notification.setCreatedAt(now);
+        });
+
+        List<Notification> saved = notificationRepository.insert(notifications);
+
+        // Présence vérifiée une seule fois par destinataire, quel que soit le nombre de notifications
+        Map<String, List<Notification>> byRecipient = saved.stream()
+                .collect(Collectors.groupingBy(Notification::getRecipientId, LinkedHashMap::new, Collectors.toList()));
+        byRecipient.forEach((recipientId, recipientNotifications) -> {
+            if (!sessionRegistry.isOnline(recipientId)) {
+                return;
+            }
+            for (Notification notification : recipientNotifications) {
+                messagingTemplate.convertAndSendToUser(
+                        recipientId,
+                        "/queue/notifications",
+                        toResponse(notification)
+                );
+            }
+        });
+        return saved;
+    }
+
     public void sendInvitationCancelledNotification(Invitation invitation, String actorId, CancelReason reason, String message) {
         List<String> recipients = new ArrayList<>();
 
@@ -60,6 +98,10 @@ public class NotificationService {
         if (invitation.getReceiverId() != null) recipients.add(invitation.getReceiverId());
 
         for (String userId : recipients) {
+            if (!sessionRegistry.isOnline(userId)) {
+                continue;
+            }
+
             Map<String, Object> payload = new HashMap<>();
             payload.put("invitationId", invitation.getId());
             payload.put("status", invitation.getStatus());
@@ -0,0 +1,73 @@
+package com.app.sportify_backend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Relance bornée des lectures-modifications-écritures sur les documents versionnés
+ * (Reservation, Team, Invitation). Chaque tentative doit relire le document : un save
+ * dont la version a changé entre-temps lève OptimisticLockingFailureException au lieu
+ * d'écraser l'écriture concurrente.
+ */
+@Service
+@Slf4j
+public class OptimisticRetryService {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OptimisticRetryService(
+            MeterRegistry meterRegistry,
+            @Value("${app.concurrency.max-attempts:3}") int maxAttempts,
+            @Value("${app.concurrency.backoff-ms:20}") long backoffMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    public <T> T run(String operation, Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("concurrency.conflicts", "operation", operation).increment();
+                if (i >= maxAttempts) {
+                    meterRegistry.counter("concurrency.exhausted", "operation", operation).increment();
+                    log.warn("{} : abandon après {} conflits de version", operation, i);
+                    throw new IllegalStateException("CONCURRENT_UPDATE");
+                }
+                meterRegistry.counter("concurrency.retries", "operation", operation).increment();
+                pause(i);
+            }
+        }
+    }
+
+    public void run(String operation, Runnable attempt) {
+        run(operation, () -> {
+            attempt.run();
+            return null;
+        });
+    }
+
+    // Attente croissante avec une part aléatoire : les écrivains concurrents ne se recroisent pas
+    private void pause(int attempt) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("CONCURRENT_UPDATE");
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Exécute les événements de outbox_events par lots : réclamation du lot par un updateMany
+ * conditionnel, une lecture par type d'entité référencée, un seul insertMany de notifications
+ * pour tout le lot. Livraison au moins une fois : un lot interrompu est repris après lockedUntil.
+ */
+@Service
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final Duration RETENTION = Duration.ofDays(7);
+    private static final List<OutboxEventType> PROPAGATIONS = List.of(
+            OutboxEventType.TEAM_CHANGED, OutboxEventType.PITCH_CHANGED, OutboxEventType.USER_CHANGED);
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+    private final ChangePropagationService changePropagationService;
+    private final int batchSize;
+    private final int maxBatches;
+    private final int maxAttempts;
+    private final Duration lockDuration;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Timer lag;
+
+    public OutboxDispatcher(
+            MongoTemplate mongoTemplate,
+            NotificationService notificationService,
+            ChangePropagationService changePropagationService,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.batch-size:200}") int batchSize,
+            @Value("${app.outbox.max-batches:10}") int maxBatches,
+            @Value("${app.outbox.max-attempts:5}") int maxAttempts,
+            @Value("${app.outbox.lock-seconds:60}") int lockSeconds
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationService = notificationService;
+        this.changePropagationService = changePropagationService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.maxAttempts = maxAttempts;
+        this.lockDuration = Duration.ofSeconds(lockSeconds);
+
+        this.dispatched = Counter.builder("outbox.dispatched")
+                .description("Événements exécutés")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed")
+                .description("Événements abandonnés après le nombre maximal de tentatives")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag")
+                .description("Délai entre l'écriture d'un événement et son exécution")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.outbox.interval-ms:1000}",
+            initialDelayString = "${app.outbox.interval-ms:1000}"
+    )
+    public void run() {
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                if (dispatchBatch(LocalDateTime.now()) < batchSize) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Passage de l'outbox interrompu : {}", e.getMessage());
+        }
+    }
+
+    //---------------------DISPATCH BATCH-----------------------------------------------------------------------------
+    // Retourne le nombre d'événements réclamés
+    public int dispatchBatch(LocalDateTime now) {
+        List<OutboxEvent> batch = claim(now);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<OutboxEvent, RuntimeException> failures = new LinkedHashMap<>();
+        List<OutboxEvent> notifying = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+
+        Map<OutboxEventType, List<OutboxEvent>> byType = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getType, () -> new EnumMap<>(OutboxEventType.class),
+                        Collectors.toList()));
+
+        for (OutboxEvent event : byType.getOrDefault(OutboxEventType.NOTIFICATION, List.of())) {
+            try {
+                notifications.add(toNotification(event.getPayload()));
+                notifying.add(event);
+            } catch (RuntimeException e) {
+                failures.put(event, e);
+            }
+        }
+
+        List<OutboxEvent> scores = byType.getOrDefault(OutboxEventType.MATCH_SCORE_RECORDED, List.of());
+        if (!scores.isEmpty()) {
+            Map<String, Team> teams = findTeams(scores);
+            for (OutboxEvent event : scores) {
+                try {
+                    notifications.addAll(scoreNotifications(event.getPayload(), teams));
+                    notifying.add(event);
+                } catch (RuntimeException e) {
+                    failures.put(event, e);
+                }
+            }
+        }
+
+        List<OutboxEvent> done = new ArrayList<>();
+
+        List<OutboxEvent> cancellations = byType.getOrDefault(OutboxEventType.INVITATION_CANCELLED, List.of());
+        if (!cancellations.isEmpty()) {
+            Map<String, Invitation> invitations = findInvitations(cancellations);
+            for (OutboxEvent event : cancellations) {
+                try {
+                    pushCancellation(event.getPayload(), invitations);
+                    done.add(event);
+                } catch (RuntimeException e) {
+                    failures.put(event, e);
+                }
+            }
+        }
+
+        for (OutboxEventType type : PROPAGATIONS) {
+            for (OutboxEvent event : byType.getOrDefault(type, List.of())) {
+                try {
+                    changePropagationService.propagate(event);
+                    done.add(event);
+                } catch (RuntimeException e) {
+                    failures.put(event, e);
+                }
+            }
+        }
+
+        // Un seul insertMany pour toutes les notifications du lot
+        try {
+            notificationService.sendAll(notifications);
+            done.addAll(notifying);
+        } catch (RuntimeException e) {
+            notifying.forEach(event -> failures.put(event, e));
+        }
+
+        markDispatched(done, now);
+        failures.forEach((event, error) -> retryLater(event, error, now));
+        return batch.size();
+    }
+
+    //---------------------CLAIM--------------------------------------------------------------------------------------
+    /**
+     * Identifiants des événements disponibles (ou dont le verrou a expiré), puis un updateMany
+     * qui rejoue le même filtre : un événement réclamé entre-temps par une autre instance
+     * n'est pas pris deux fois. Le lot est relu par son claimToken.
+     */
+    private List<OutboxEvent> claim(LocalDateTime now) {
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(OutboxStatus.PENDING).and("availableAt").lte(now),
+                Criteria.where("status").is(OutboxStatus.PROCESSING).and("lockedUntil").lt(now)
+        );
+
+        Query available = Query.query(claimable)
+                .with(Sort.by(Sort.Direction.ASC, "availableAt"))
+                .limit(batchSize);
+        available.fields().include("_id");
+        List<String> ids = mongoTemplate.find(available, OutboxEvent.class).stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        mongoTemplate.updateMulti(
+                Query.query(new Criteria().andOperator(Criteria.where("_id").in(ids), claimable)),
+                new Update()
+                        .set("status", OutboxStatus.PROCESSING)
+                        .set("claimToken", claimToken)
+                        .set("lockedUntil", now.plus(lockDuration)),
+                OutboxEvent.class
+        );
+
+        return mongoTemplate.find(Query.query(Criteria.where("claimToken").is(claimToken)), OutboxEvent.class);
+    }
+
+    //---------------------NOTIFICATION-------------------------------------------------------------------------------
+    @SuppressWarnings("unchecked")
+    private static Notification toNotification(Map<String, Object> payload) {
+        return Notification.builder()
+                .recipientId((String) payload.get("recipientId"))
+                .senderId((String) payload.get("senderId"))
+                .title((String) payload.get("title"))
+                .message((String) payload.get("message"))
+                .type(NotificationType.valueOf((String) payload.get("notificationType")))
+                .referenceId((String) payload.get("referenceId"))
+                .data((Map<String, Object>) payload.get("data"))
+                .build();
+    }
+
+    //---------------------MATCH SCORE--------------------------------------------------------------------------------
+    // Toutes les équipes du lot en une seule lecture
+    private Map<String, Team> findTeams(List<OutboxEvent> events) {
+        Set<String> teamIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            teamIds.add((String) event.getPayload().get("senderTeamId"));
+            teamIds.add((String) event.getPayload().get("adverseTeamId"));
+        }
+        Query query = Query.query(Criteria.where("_id").in(teamIds));
+        query.fields().include("name", "ownerId", "members");
+        return mongoTemplate.find(query, Team.class).stream()
+                .collect(Collectors.toMap(Team::getId, Function.identity()));
+    }
+
+    private static List<Notification> scoreNotifications(Map<String, Object> payload, Map<String, Team> teams) {
+        Team senderTeam = teams.get((String) payload.get("senderTeamId"));
+        if (senderTeam == null) {
+            throw new RuntimeException("SENDER_TEAM_NOT_FOUND");
+        }
+        Team adverseTeam = teams.get((String) payload.get("adverseTeamId"));
+        if (adverseTeam == null) {
+            throw new RuntimeException("ADVERSE_TEAM_NOT_FOUND");
+        }
+
+        String senderId = (String) payload.get("senderId");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("reservationId", payload.get("reservationId"));
+        data.put("pitchId", payload.get("pitchId"));
+        data.put("pitchName", payload.get("pitchName"));
+        data.put("senderTeamName", senderTeam.getName());
+        data.put("adverseTeamName", adverseTeam.getName());
+        data.put("scoreHome", payload.get("scoreHome"));
+        data.put("scoreAway", payload.get("scoreAway"));
+        data.put("day", payload.get("day"));
+        data.put("hour", payload.get("hour"));
+
+        String scoreText = senderTeam.getName() + " " +
+                payload.get("scoreHome") + " - " +
+                payload.get("scoreAway") + " " +
+                adverseTeam.getName();
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Team.TeamMember member : membersOf(senderTeam)) {
+            if (!member.getUserId().equals(senderId) &&
+                    !member.getUserId().equals(senderTeam.getOwnerId())) {
+                notifications.add(scoreNotification(member.getUserId(), senderId,
+                        "Le match contre " + adverseTeam.getName() + " est terminé: " + scoreText,
+                        senderTeam.getId(), data));
+            }
+        }
+
+        for (Team.TeamMember member : membersOf(adverseTeam)) {
+            if (!member.getUserId().equals(adverseTeam.getOwnerId())) {
+                notifications.add(scoreNotification(member.getUserId(), senderId,
+                        "Le match contre " + senderTeam.getName() + " est terminé: " + scoreText,
+                        adverseTeam.getId(), data));
+            }
+        }
+        return notifications;
+    }
+
+    private static Notification scoreNotification(
+            String recipientId, String senderId, String message, String teamId, Map<String, Object> data) {
+        return Notification.builder()
+                .recipientId(recipientId)
+                .senderId(senderId)
+                .title("Score final enregistré")
+                .message(message)
+                .type(NotificationType.MATCH_COMPLETED)
+                .referenceId(teamId)
+                .data(data)
+                .build();
+    }
+
+    private static List<Team.TeamMember> membersOf(Team team) {
+        return team.getMembers() != null ? team.getMembers() : List.of();
+    }
+
+    //---------------------INVITATION CANCELLED-----------------------------------------------------------------------
+    private Map<String, Invitation> findInvitations(List<OutboxEvent> events) {
+        Set<String> invitationIds = events.stream()
+                .map(event -> (String) event.getPayload().get("invitationId"))
+                .collect(Collectors.toSet());
+        return mongoTemplate.find(Query.query(Criteria.where("_id").in(invitationIds)), Invitation.class).stream()
+                .collect(Collectors.toMap(Invitation::getId, Function.identity()));
+    }
+
+    private void pushCancellation(Map<String, Object> payload, Map<String, Invitation> invitations) {
+        Invitation invitation = invitations.get((String) payload.get("invitationId"));
+        if (invitation == null) {
+            // Invitation supprimée depuis : plus personne à prévenir
+            return;
+        }
+        String reason = (String) payload.get("reason");
+        notificationService.sendInvitationCancelledNotification(
+                invitation,
+                (String) payload.get("actorId"),
+                reason != null ? CancelReason.valueOf(reason) : null,
+                (String) payload.get("message")
+        );
+    }
+
+    //---------------------OUTCOME------------------------------------------------------------------------------------
+    private void markDispatched(List<OutboxEvent> events, LocalDateTime now) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(events.stream().map(OutboxEvent::getId).toList())
+                        .and("claimToken").is(events.get(0).getClaimToken())),
+                new Update()
+                        .set("status", OutboxStatus.DISPATCHED)
+                        .set("dispatchedAt", now)
+                        .set("expiresAt", now.plus(RETENTION))
+                        .unset("claimToken")
+                        .unset("lockedUntil"),
+                OutboxEvent.class
+        );
+
+        LocalDateTime dispatchedAt = LocalDateTime.now();
+        for (OutboxEvent event : events) {
+            lag.record(Duration.between(event.getCreatedAt(), dispatchedAt));
+        }
+        dispatched.increment(events.size());
+    }
+
+    // Nouvelle tentative avec un délai doublé à chaque échec, abandon après maxAttempts
+    private void retryLater(OutboxEvent event, RuntimeException error, LocalDateTime now) {
+        int attempts = event.getAttempts() + 1;
+        Update update = new Update()
+                .set("attempts", attempts)
+                .set("lastError", error.getMessage())
+                .unset("claimToken")
+                .unset("lockedUntil");
+
+        if (attempts >= maxAttempts) {
+            update.set("status", OutboxStatus.FAILED).set("expiresAt", now.plus(RETENTION));
+            failed.increment();
+            log.error("Événement {} {} abandonné après {} tentatives : {}",
+                    event.getType(), event.getId(), attempts, error.getMessage());
+        } else {
+            Duration backoff = Duration.ofSeconds(1L << Math.min(attempts, 16));
+            update.set("status", OutboxStatus.PENDING)
+                    .set("availableAt", now.plus(backoff.compareTo(MAX_BACKOFF) < 0 ? backoff : MAX_BACKOFF));
+            log.warn("Événement {} {} en échec (tentative {}) : {}",
+                    event.getType(), event.getId(), attempts, error.getMessage());
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(event.getId()).and("claimToken").is(event.getClaimToken())),
+                update,
+                OutboxEvent.class
+        );
+    }
+}
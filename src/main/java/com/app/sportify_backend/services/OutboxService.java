@@ -0,0 +1,81 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Écriture des événements dans outbox_events : une insertion par événement, quel que soit
+ * le nombre de destinataires. L'envoi effectif est fait par OutboxDispatcher.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public OutboxEvent publish(OutboxEventType type, String aggregateId, Map<String, Object> payload) {
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.insert(OutboxEvent.builder()
+                .type(type)
+                .aggregateId(aggregateId)
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    // Même signature que NotificationService.send, mais différée
+    public OutboxEvent publishNotification(
+            String recipientId,
+            String senderId,
+            String title,
+            String message,
+            NotificationType type,
+            String referenceId,
+            Map<String, Object> data
+    ) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("recipientId", recipientId);
+        payload.put("senderId", senderId);
+        payload.put("title", title);
+        payload.put("message", message);
+        payload.put("notificationType", type.name());
+        payload.put("referenceId", referenceId);
+        payload.put("data", data);
+        return publish(OutboxEventType.NOTIFICATION, referenceId, payload);
+    }
+
+    //---------------------MATCH SCORE--------------------------------------------------------------------------------
+    // Les membres des deux équipes sont résolus au moment de l'envoi
+    public OutboxEvent publishScoreRecorded(Reservation reservation) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("reservationId", reservation.getId());
+        payload.put("pitchId", reservation.getPitchId());
+        payload.put("pitchName", reservation.getPitchName());
+        payload.put("senderId", reservation.getSenderId());
+        payload.put("senderTeamId", reservation.getSenderTeamId());
+        payload.put("adverseTeamId", reservation.getAdverseTeamId());
+        payload.put("scoreHome", reservation.getScore().getHome());
+        payload.put("scoreAway", reservation.getScore().getAway());
+        payload.put("day", reservation.getDay().toString());
+        payload.put("hour", reservation.getHour().toString());
+        return publish(OutboxEventType.MATCH_SCORE_RECORDED, reservation.getId(), payload);
+    }
+
+    //---------------------INVITATION CANCELLED-----------------------------------------------------------------------
+    public OutboxEvent publishInvitationCancelled(Invitation invitation, String actorId, CancelReason reason, String message) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("invitationId", invitation.getId());
+        payload.put("actorId", actorId);
+        payload.put("reason", reason != null ? reason.name() : null);
+        payload.put("message", message);
+        return publish(OutboxEventType.INVITATION_CANCELLED, invitation.getId(), payload);
+    }
+}
@@ -0,0 +1,129 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.exception.TooManyRequestsException;
+import com.app.sportify_backend.models.PasswordResetOtp;
+import com.app.sportify_backend.repositories.PasswordResetOtpRepository;
+import com.app.sportify_backend.utils.HashUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+public class PasswordResetOtpService {
+
+    private static final long VALIDITY_MINUTES = 5;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long RESEND_COOLDOWN_SECONDS = 60;
+    private static final long WINDOW_HOURS = 1;
+    private static final int MAX_REQUESTS_PER_WINDOW = 5;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final PasswordResetOtpRepository otpRepository;
+    private final MongoTemplate mongoTemplate;
+
+    //---------------------CREATE-------------------------------------------------------------------------------------
+    /**
+     * Génère un nouveau code pour cet email et retourne sa valeur en clair (à envoyer par mail).
+     * Lève TooManyRequestsException si l'email a déjà demandé un code trop récemment.
+     */
+    public String createOtp(String email) {
+        String otp = String.format("%06d", RANDOM.nextInt(1_000_000));
+        LocalDateTime now = LocalDateTime.now();
+
+        PasswordResetOtp existing = otpRepository.findByEmail(email).orElse(null);
+
+        if (existing == null) {
+            try {
+                otpRepository.insert(PasswordResetOtp.builder()
+                        .email(email)
+                        .codeHash(hash(email, otp))
+                        .attempts(0)
+                        .expiresAt(now.plusMinutes(VALIDITY_MINUTES))
+                        .lastSentAt(now)
+                        .windowStart(now)
+                        .requestCount(1)
+                        .purgeAt(now.plusHours(WINDOW_HOURS))
+                        .build());
+            } catch (DuplicateKeyException e) {
+                // Une autre demande pour le même email vient d'être enregistrée
+                throw new TooManyRequestsException("OTP_REQUEST_TOO_FREQUENT");
+            }
+            return otp;
+        }
+
+        if (existing.getLastSentAt() != null
+                && existing.getLastSentAt().isAfter(now.minusSeconds(RESEND_COOLDOWN_SECONDS))) {
+            throw new TooManyRequestsException("OTP_REQUEST_TOO_FREQUENT");
+        }
+
+        boolean windowActive = existing.getWindowStart() != null
+                && existing.getWindowStart().isAfter(now.minusHours(WINDOW_HOURS));
+        if (windowActive && existing.getRequestCount() >= MAX_REQUESTS_PER_WINDOW) {
+            throw new TooManyRequestsException("OTP_REQUEST_LIMIT_REACHED");
+        }
+
+        LocalDateTime windowStart = windowActive ? existing.getWindowStart() : now;
+        // Un code émis en fin de fenêtre doit rester en base jusqu'à sa propre expiration
+        LocalDateTime windowEnd = windowStart.plusHours(WINDOW_HOURS);
+        LocalDateTime codeEnd = now.plusMinutes(VALIDITY_MINUTES);
+        Update update = new Update()
+                .set("codeHash", hash(email, otp))
+                .set("attempts", 0)
+                .set("expiresAt", codeEnd)
+                .set("lastSentAt", now)
+                .set("windowStart", windowStart)
+                .set("requestCount", windowActive ? existing.getRequestCount() + 1 : 1)
+                .set("purgeAt", windowEnd.isAfter(codeEnd) ? windowEnd : codeEnd);
+
+        // Conditionné sur lastSentAt : deux demandes simultanées ne passent pas toutes les deux
+        long modified = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(existing.getId())
+                        .and("lastSentAt").is(existing.getLastSentAt())),
+                update,
+                PasswordResetOtp.class
+        ).getModifiedCount();
+
+        if (modified == 0) {
+            throw new TooManyRequestsException("OTP_REQUEST_TOO_FREQUENT");
+        }
+        return otp;
+    }
+
+    //---------------------VERIFY-------------------------------------------------------------------------------------
+    public boolean verifyOtp(String email, String otp) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Le code n'est consommé qu'une fois, en une seule opération atomique
+        PasswordResetOtp consumed = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("email").is(email)
+                        .and("codeHash").is(hash(email, otp))
+                        .and("expiresAt").gt(now)
+                        .and("attempts").lt(MAX_ATTEMPTS)),
+                new Update().unset("codeHash").unset("expiresAt"),
+                PasswordResetOtp.class
+        );
+
+        if (consumed != null) {
+            return true;
+        }
+
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("email").is(email).and("codeHash").exists(true)),
+                new Update().inc("attempts", 1),
+                PasswordResetOtp.class
+        );
+        return false;
+    }
+
+    private String hash(String email, String otp) {
+        return HashUtils.sha256(email + ":" + otp);
+    }
+}
@@ -0,0 +1,36 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Pitch;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recompile les horaires d'un terrain après chaque écriture via le repository
+ * (updatePitch, activation, création depuis la validation manager...).
+ */
+@Component
+@RequiredArgsConstructor
+public class PitchCacheInvalidationListener extends AbstractMongoEventListener<Pitch> {
+
+    private final PitchScheduleService pitchScheduleService;
+    private final SlotOccupancyService slotOccupancyService;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Pitch> event) {
+        pitchScheduleService.evict(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Pitch> event) {
+        Document source = event.getSource();
+        Object id = source.get("_id");
+        if (id != null) {
+            pitchScheduleService.evict(id.toString());
+            slotOccupancyService.evictPitch(id.toString());
+        }
+    }
+}
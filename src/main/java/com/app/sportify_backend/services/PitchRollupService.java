@@ -0,0 +1,324 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.PitchDailyRollup;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Maintenance de pitch_daily_rollups : un $inc par changement de statut, une reprise complète
+ * quand la collection est vide et une vérification périodique contre les réservations.
+ */
+@Service
+@Slf4j
+public class PitchRollupService {
+
+    private static final int DEFAULT_DURATION = 60;
+    private static final int WRITE_BATCH = 500;
+    private static final int RECENT_UPDATE_MINUTES = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter corrections;
+    private final int checkDaysBefore;
+    private final int checkDaysAfter;
+
+    public PitchRollupService(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.rollups.check.days-before:30}") int checkDaysBefore,
+            @Value("${app.rollups.check.days-after:90}") int checkDaysAfter
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.corrections = Counter.builder("rollups.check.corrections")
+                .description("Compteurs journaliers de terrain corrigés par la vérification")
+                .register(meterRegistry);
+        this.checkDaysBefore = checkDaysBefore;
+        this.checkDaysAfter = checkDaysAfter;
+    }
+
+    private record RollupKey(String pitchId, LocalDate day) {}
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class StatusTotals {
+        private String pitchId;
+        private LocalDate day;
+        private ReservationStatus status;
+        private int count;
+        private long minutes;
+        private double revenue;
+    }
+
+    //---------------------TRANSITIONS--------------------------------------------------------------------------------
+    // from == null : réservation créée
+    public void recordTransition(Reservation reservation, ReservationStatus from, ReservationStatus to) {
+        if (from == to) {
+            return;
+        }
+        try {
+            upsert(reservation, from, to);
+        } catch (DuplicateKeyException e) {
+            // Premier $inc simultané sur la même journée : le second repasse en update
+            upsert(reservation, from, to);
+        }
+    }
+
+    // Lots du planificateur : les deltas sont regroupés par (terrain, jour) puis écrits en un bulk
+    public void recordTransitions(List<Reservation> reservations, ReservationStatus from, ReservationStatus to) {
+        if (reservations.isEmpty() || from == to) {
+            return;
+        }
+
+        Map<RollupKey, StatusTotals> grouped = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            StatusTotals totals = grouped.computeIfAbsent(
+                    new RollupKey(reservation.getPitchId(), reservation.getDay()),
+                    key -> new StatusTotals(key.pitchId(), key.day(), to, 0, 0, 0));
+            totals.setCount(totals.getCount() + 1);
+            totals.setMinutes(totals.getMinutes() + duration(reservation));
+            totals.setRevenue(totals.getRevenue() + price(reservation));
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PitchDailyRollup.class);
+        grouped.forEach((key, totals) -> bulk.upsert(
+                keyQuery(key),
+                delta(from, to, totals.getCount(), totals.getMinutes(), totals.getRevenue())));
+        bulk.execute();
+    }
+
+    private void upsert(Reservation reservation, ReservationStatus from, ReservationStatus to) {
+        mongoTemplate.upsert(
+                keyQuery(new RollupKey(reservation.getPitchId(), reservation.getDay())),
+                delta(from, to, 1, duration(reservation), price(reservation)),
+                PitchDailyRollup.class
+        );
+    }
+
+    private static Update delta(ReservationStatus from, ReservationStatus to, int count, long minutes, double revenue) {
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        if (from != null) {
+            update.inc("statusCounts." + from.name(), -count);
+        }
+        update.inc("statusCounts." + to.name(), count);
+
+        int booked = (isBooked(to) ? 1 : 0) - (isBooked(from) ? 1 : 0);
+        update.inc("bookings", booked * count)
+                .inc("bookedMinutes", booked * minutes)
+                .inc("revenue", booked * revenue);
+        return update;
+    }
+
+    private static boolean isBooked(ReservationStatus status) {
+        return status != null && ManagerStatsService.BOOKED.contains(status);
+    }
+
+    //---------------------READ---------------------------------------------------------------------------------------
+    public List<PitchDailyRollup> getRollups(String pitchId, LocalDate from, LocalDate to) {
+        return mongoTemplate.find(
+                Query.query(Criteria.where("pitchId").is(pitchId).and("day").gte(from).lte(to)),
+                PitchDailyRollup.class
+        );
+    }
+
+    //---------------------BACKFILL-----------------------------------------------------------------------------------
+    // Premier démarrage avec les rollups : reconstruits depuis toutes les réservations
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (mongoTemplate.estimatedCount(PitchDailyRollup.class) > 0) {
+                return;
+            }
+            Map<RollupKey, PitchDailyRollup> expected = computeExpected(null, null);
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PitchDailyRollup.class);
+            int pending = 0;
+            for (PitchDailyRollup rollup : expected.values()) {
+                bulk.upsert(keyQuery(new RollupKey(rollup.getPitchId(), rollup.getDay())), replacement(rollup));
+                if (++pending == WRITE_BATCH) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PitchDailyRollup.class);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                bulk.execute();
+            }
+            log.info("Compteurs journaliers reconstruits pour {} journées de terrain", expected.size());
+        } catch (DataAccessException e) {
+            log.warn("Reprise des compteurs journaliers interrompue : {}", e.getMessage());
+        }
+    }
+
+    //---------------------CONSISTENCY CHECK--------------------------------------------------------------------------
+    @Scheduled(cron = "${app.rollups.check.cron:0 0 5 * * *}")
+    public void checkRecentDays() {
+        LocalDate today = LocalDate.now();
+        try {
+            check(today.minusDays(checkDaysBefore), today.plusDays(checkDaysAfter));
+        } catch (DataAccessException e) {
+            log.warn("Vérification des compteurs journaliers interrompue : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Compare les rollups de [from, to] au recalcul depuis les réservations et corrige les écarts.
+     * Les journées modifiées depuis peu sont laissées au passage suivant.
+     */
+    public int check(LocalDate from, LocalDate to) {
+        Map<RollupKey, PitchDailyRollup> expected = computeExpected(from, to);
+        LocalDateTime recentLimit = LocalDateTime.now().minusMinutes(RECENT_UPDATE_MINUTES);
+        int corrected = 0;
+
+        Query stored = Query.query(Criteria.where("day").gte(from).lte(to));
+        try (Stream<PitchDailyRollup> rollups = mongoTemplate.stream(stored, PitchDailyRollup.class)) {
+            for (PitchDailyRollup current : (Iterable<PitchDailyRollup>) rollups::iterator) {
+                RollupKey key = new RollupKey(current.getPitchId(), current.getDay());
+                PitchDailyRollup target = expected.remove(key);
+                if (target == null) {
+                    target = PitchDailyRollup.builder().pitchId(key.pitchId()).day(key.day()).build();
+                }
+                boolean recent = current.getUpdatedAt() != null && current.getUpdatedAt().isAfter(recentLimit);
+                if (!sameCounters(target, current) && !recent && overwrite(target, current)) {
+                    corrected++;
+                }
+            }
+        }
+
+        // Journées sans rollup alors qu'elles ont des réservations
+        for (PitchDailyRollup missing : expected.values()) {
+            try {
+                mongoTemplate.insert(withTimestamp(missing));
+                corrected++;
+            } catch (DuplicateKeyException e) {
+                // Créée entre-temps par un $inc
+            }
+        }
+
+        if (corrected > 0) {
+            log.warn("Compteurs journaliers corrigés pour {} journées de terrain", corrected);
+        }
+        corrections.increment(corrected);
+        return corrected;
+    }
+
+    private boolean overwrite(PitchDailyRollup target, PitchDailyRollup current) {
+        Criteria unchanged = Criteria.where("_id").is(current.getId());
+        unchanged = current.getUpdatedAt() != null
+                ? unchanged.and("updatedAt").is(current.getUpdatedAt())
+                : unchanged.and("updatedAt").exists(false);
+        return mongoTemplate.updateFirst(Query.query(unchanged), replacement(target), PitchDailyRollup.class)
+                .getModifiedCount() > 0;
+    }
+
+    //---------------------RECOMPUTE----------------------------------------------------------------------------------
+    // Une agrégation $group par (terrain, jour, statut), repliée en un rollup par (terrain, jour)
+    private Map<RollupKey, PitchDailyRollup> computeExpected(LocalDate from, LocalDate to) {
+        Criteria criteria = from != null ? Criteria.where("day").gte(from).lte(to) : new Criteria();
+        TypedAggregation<Reservation> aggregation = Aggregation.newAggregation(
+                Reservation.class,
+                Aggregation.match(criteria),
+                Aggregation.group("pitchId", "day", "status")
+                        .count().as("count")
+                        .sum(ConditionalOperators.ifNull("duration").then(DEFAULT_DURATION)).as("minutes")
+                        .sum(ConditionalOperators.ifNull("pitchPrice").then(0)).as("revenue"),
+                Aggregation.project("count", "minutes", "revenue")
+                        .and("_id.pitchId").as("pitchId")
+                        .and("_id.day").as("day")
+                        .and("_id.status").as("status")
+        );
+
+        Map<RollupKey, PitchDailyRollup> expected = new HashMap<>();
+        try (Stream<StatusTotals> totals = mongoTemplate.aggregateStream(aggregation, StatusTotals.class)) {
+            for (StatusTotals row : (Iterable<StatusTotals>) totals::iterator) {
+                if (row.getPitchId() == null || row.getDay() == null || row.getStatus() == null) {
+                    continue;
+                }
+                PitchDailyRollup rollup = expected.computeIfAbsent(
+                        new RollupKey(row.getPitchId(), row.getDay()),
+                        key -> PitchDailyRollup.builder().pitchId(key.pitchId()).day(key.day()).build());
+
+                rollup.getStatusCounts().put(row.getStatus(), row.getCount());
+                if (isBooked(row.getStatus())) {
+                    rollup.setBookings(rollup.getBookings() + row.getCount());
+                    rollup.setBookedMinutes(rollup.getBookedMinutes() + row.getMinutes());
+                    rollup.setRevenue(rollup.getRevenue() + row.getRevenue());
+                }
+            }
+        }
+        return expected;
+    }
+
+    //---------------------HELPERS------------------------------------------------------------------------------------
+    private static Query keyQuery(RollupKey key) {
+        return Query.query(Criteria.where("pitchId").is(key.pitchId()).and("day").is(key.day()));
+    }
+
+    private static Update replacement(PitchDailyRollup rollup) {
+        return new Update()
+                .set("statusCounts", rollup.getStatusCounts())
+                .set("bookings", rollup.getBookings())
+                .set("bookedMinutes", rollup.getBookedMinutes())
+                .set("revenue", rollup.getRevenue())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    private static PitchDailyRollup withTimestamp(PitchDailyRollup rollup) {
+        rollup.setUpdatedAt(LocalDateTime.now());
+        return rollup;
+    }
+
+    // Les statuts à zéro et les statuts absents sont équivalents
+    private static boolean sameCounters(PitchDailyRollup expected, PitchDailyRollup current) {
+        for (ReservationStatus status : ReservationStatus.values()) {
+            if (!Objects.equals(count(expected, status), count(current, status))) {
+                return false;
+            }
+        }
+        return expected.getBookings() == current.getBookings()
+                && expected.getBookedMinutes() == current.getBookedMinutes()
+                && Math.abs(expected.getRevenue() - current.getRevenue()) < 0.005;
+    }
+
+    private static int count(PitchDailyRollup rollup, ReservationStatus status) {
+        Map<ReservationStatus, Integer> counts = rollup.getStatusCounts();
+        return counts == null ? 0 : counts.getOrDefault(status, 0);
+    }
+
+    private static int duration(Reservation reservation) {
+        return reservation.getDuration() != null ? reservation.getDuration() : DEFAULT_DURATION;
+    }
+
+    private static double price(Reservation reservation) {
+        return reservation.getPitchPrice() != null ? reservation.getPitchPrice() : 0;
+    }
+}
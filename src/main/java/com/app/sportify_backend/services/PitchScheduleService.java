@@ -0,0 +1,121 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Pitch;
+import com.app.sportify_backend.utils.DayTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Horaires d'ouverture des terrains compilés en un gabarit par jour de semaine.
+ * Les gabarits sont recalculés après chaque enregistrement du terrain.
+ */
+@Service
+public class PitchScheduleService {
+
+    public static final int DEFAULT_OPEN_MINUTE = 8 * 60;
+    public static final int DEFAULT_CLOSE_MINUTE = 22 * 60;
+    public static final int DEFAULT_SLOT_MINUTES = 60;
+    private static final int MAX_SLOT_MINUTES = 240;
+    private static final Duration SCHEDULE_TTL = Duration.ofMinutes(2);
+
+    private final Cache<String, PitchSchedule> schedules;
+
+    public PitchScheduleService(@Value("${app.pitches.schedule-cache.max-size:10000}") long maxSize) {
+        this.schedules = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // L'éviction après save ne touche que le nœud qui a enregistré le terrain :
+                // les autres relisent les horaires au plus tard après SCHEDULE_TTL
+                .expireAfterWrite(SCHEDULE_TTL)
+                .build();
+    }
+
+    public record PitchSchedule(Map<DayOfWeek, DayTemplate> weekdays, Set<LocalDate> closedDays, int slotMinutes) {
+
+        public DayTemplate templateFor(LocalDate day) {
+            return closedDays.contains(day) ? DayTemplate.CLOSED : weekdays.get(day.getDayOfWeek());
+        }
+    }
+
+    public PitchSchedule getSchedule(Pitch pitch) {
+        return schedules.get(pitch.getId(), id -> compile(pitch));
+    }
+
+    public DayTemplate templateFor(Pitch pitch, LocalDate day) {
+        return getSchedule(pitch).templateFor(day);
+    }
+
+    // Le créneau demandé doit être ouvert sur toute sa durée, y compris après minuit
+    public boolean isOpen(Pitch pitch, LocalDate day, LocalTime hour, Integer duration) {
+        PitchSchedule schedule = getSchedule(pitch);
+        for (SlotOccupancyService.Segment segment : SlotOccupancyService.segments(day, hour, duration)) {
+            if (!schedule.templateFor(segment.day()).isOpen(segment.startMinute(), segment.endMinute())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void evict(String pitchId) {
+        if (pitchId != null) {
+            schedules.invalidate(pitchId);
+        }
+    }
+
+    //---------------------VALIDATION---------------------------------------------------------------------------------
+    public void validate(Pitch pitch) {
+        if (pitch.getSlotMinutes() != null &&
+                (pitch.getSlotMinutes() <= 0 || pitch.getSlotMinutes() > MAX_SLOT_MINUTES || pitch.getSlotMinutes() % 5 != 0)) {
+            throw new IllegalArgumentException("Durée de créneau invalide (multiple de 5, au plus " + MAX_SLOT_MINUTES + " minutes)");
+        }
+        if (pitch.getOpeningHours() != null) {
+            for (Pitch.OpeningHours hours : pitch.getOpeningHours()) {
+                if (hours.getDayOfWeek() == null
+                        || hours.getOpenMinute() < 0
+                        || hours.getCloseMinute() > 24 * 60
+                        || hours.getOpenMinute() >= hours.getCloseMinute()) {
+                    throw new IllegalArgumentException("Horaires d'ouverture invalides");
+                }
+            }
+        }
+    }
+
+    //---------------------COMPILATION--------------------------------------------------------------------------------
+    private PitchSchedule compile(Pitch pitch) {
+        Map<DayOfWeek, DayTemplate> weekdays = new EnumMap<>(DayOfWeek.class);
+
+        if (pitch.getOpeningHours() == null || pitch.getOpeningHours().isEmpty()) {
+            DayTemplate defaultDay = DayTemplate.of(new int[]{DEFAULT_OPEN_MINUTE, DEFAULT_CLOSE_MINUTE});
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                weekdays.put(dayOfWeek, defaultDay);
+            }
+        } else {
+            for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+                List<int[]> intervals = new ArrayList<>();
+                for (Pitch.OpeningHours hours : pitch.getOpeningHours()) {
+                    if (hours.getDayOfWeek() == dayOfWeek) {
+                        intervals.add(new int[]{hours.getOpenMinute(), hours.getCloseMinute()});
+                    }
+                }
+                weekdays.put(dayOfWeek, DayTemplate.of(intervals.toArray(new int[0][])));
+            }
+        }
+
+        Set<LocalDate> closedDays = pitch.getClosedDays() != null ? new HashSet<>(pitch.getClosedDays()) : Set.of();
+        int slotMinutes = pitch.getSlotMinutes() != null ? pitch.getSlotMinutes() : DEFAULT_SLOT_MINUTES;
+
+        return new PitchSchedule(weekdays, closedDays, slotMinutes);
+    }
+}
@@ -1,11 +1,16 @@
 package com.app.sportify_backend.services;
 
+import com.app.sportify_backend.dto.ManagerStatsResponse;
+import com.app.sportify_backend.dto.PitchAvailabilityResponse;
 import com.app.sportify_backend.dto.ReservationResponse;
 import com.app.sportify_backend.models.Pitch;
 import com.app.sportify_backend.models.Reservation;
 import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.StatsGranularity;
 import com.app.sportify_backend.repositories.PitchRepository;
 import com.app.sportify_backend.repositories.ReservationRepository;
+import com.app.sportify_backend.utils.DayOccupancy;
+import com.app.sportify_backend.utils.DayTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -28,10 +33,18 @@ import java.nio.file.Paths;
 @Slf4j
 public class PitchService {
 
+    private static final int MAX_AVAILABILITY_DAYS = 31;
+    private static final int MAX_AVAILABILITY_PITCHES = 20;
+
     private final PitchRepository pitchRepository;
     private final ReservationRepository reservationRepository;
+    private final SlotOccupancyService slotOccupancyService;
+    private final PitchScheduleService pitchScheduleService;
+    private final ManagerStatsService managerStatsService;
+    private final ChangePropagationService changePropagationService;
 
     public Pitch createPitch(Pitch pitch, String managerId, MultipartFile image) throws IOException {
+        pitchScheduleService.validate(pitch);
         pitch.setCreatedBy(managerId);
         pitch.setCreatedViaValidation(true);
         pitch.setCreatedViaBackoffice(false);
@@ -74,6 +87,10 @@ public class PitchService {
         Pitch pitch = pitchRepository.findById(pitchId)
                 .orElseThrow(() -> new RuntimeException("Pitch non trouvé"));
 
+        boolean copiedFieldsChanged = !Objects.equals(pitch.getName(), updatedPitch.getName()) ||
+                !Objects.equals(pitch.getAddress(), updatedPitch.getAddress()) ||
+                !Objects.equals(pitch.getImageUrl(), updatedPitch.getImageUrl());
+
         pitch.setName(updatedPitch.getName());
         pitch.setAddress(updatedPitch.getAddress());
         pitch.setCity(updatedPitch.getCity());
@@ -82,7 +99,22 @@ public class PitchService {
         pitch.setSurfaceType(updatedPitch.getSurfaceType());
         pitch.setImageUrl(updatedPitch.getImageUrl());
 
-        return pitchRepository.save(pitch);
+        pitchScheduleService.validate(updatedPitch);
+        if (updatedPitch.getOpeningHours() != null) {
+            pitch.setOpeningHours(updatedPitch.getOpeningHours());
+        }
+        if (updatedPitch.getClosedDays() != null) {
+            pitch.setClosedDays(updatedPitch.getClosedDays());
+        }
+        if (updatedPitch.getSlotMinutes() != null) {
+            pitch.setSlotMinutes(updatedPitch.getSlotMinutes());
+        }
+
+        Pitch saved = pitchRepository.save(pitch);
+        if (copiedFieldsChanged) {
+            changePropagationService.pitchChanged(pitchId);
+        }
+        return saved;
     }
 
     public void deactivatePitch(String pitchId) {
@@ -159,18 +191,10 @@ public class PitchService {
 
     //---------------------GET TODAY MATCH COUNT--------------------------------------------------------------------
     public long getTodayMatchesCount(String pitchId, String userId) {
-        Pitch pitch = pitchRepository.findById(pitchId)
-                .orElseThrow(() -> new RuntimeException("PITCH_NOT_FOUND"));
-
-        if (!pitch.getCreatedBy().equals(userId)) {
-            throw new RuntimeException("NOT_PITCH_OWNER");
-        }
-
-        return pitchRepository.countByPitchIdAndStatusAndDay(
-                pitchId,
-                ReservationStatus.CONFIRMED,
-                LocalDate.now()
-        );
+        LocalDate today = LocalDate.now();
+        return managerStatsService.getStats(pitchId, userId, StatsGranularity.DAY, today, today)
+                .getPeriods().get(0)
+                .getBookings();
     }
 
     //---------------------GET ALL RESERVATIONS FOR A PITCH (public - pour voir les créneaux disponibles)----------
@@ -200,51 +224,127 @@ public class PitchService {
         Pitch pitch = pitchRepository.findById(pitchId)
                 .orElseThrow(() -> new RuntimeException("PITCH_NOT_FOUND"));
 
-        List<Reservation> reservations = reservationRepository
-                .findByPitchIdAndDay(pitchId, day);
-
         List<Map<String, Object>> timeSlots = new ArrayList<>();
-        LocalTime startTime = LocalTime.of(8, 0);
-        LocalTime endTime = LocalTime.of(22, 0);
 
-        while (startTime.isBefore(endTime)) {
-            LocalTime currentTime = startTime;
+        PitchScheduleService.PitchSchedule schedule = pitchScheduleService.getSchedule(pitch);
+        DayTemplate template = schedule.templateFor(day);
+        if (template.isClosed()) {
+            return timeSlots;
+        }
+
+        DayOccupancy occupancy = slotOccupancyService.getOccupancy(pitchId, day);
+        int slotMinutes = schedule.slotMinutes();
 
-            boolean isAvailable = reservations.stream()
-                    .filter(r -> r.getStatus() == ReservationStatus.CONFIRMED)
-                    .noneMatch(r -> r.getHour().equals(currentTime));
+        for (int start = template.firstOpenMinute(); start + slotMinutes <= template.lastOpenMinute(); start += slotMinutes) {
+            int end = start + slotMinutes;
+            if (!template.isOpen(start, end)) {
+                continue;
+            }
 
+            // Un créneau est pris dès qu'un match confirmé le chevauche, même commencé avant
             Map<String, Object> slot = new HashMap<>();
-            slot.put("time", currentTime.toString());
-            slot.put("available", isAvailable);
+            slot.put("time", LocalTime.of(start / 60, start % 60).toString());
+            slot.put("available", occupancy.isFree(start, end));
 
             timeSlots.add(slot);
-
-            startTime = startTime.plusHours(1);
         }
 
         return timeSlots;
     }
 
-    //---------------------GET WEEKLY STATS------------------------------------------------------------------
-    public Map<String, Long> getWeeklyStats(String pitchId, String userId) {
-        Pitch pitch = pitchRepository.findById(pitchId)
-                .orElseThrow(() -> new RuntimeException("PITCH_NOT_FOUND"));
+    //---------------------GET AVAILABILITY (plusieurs terrains, plusieurs jours)-------------------------------------
+    public List<PitchAvailabilityResponse> getAvailability(
+            List<String> pitchIds,
+            LocalDate from,
+            LocalDate to,
+            Integer slotMinutes
+    ) {
+        if (pitchIds == null || pitchIds.isEmpty()) {
+            throw new IllegalArgumentException("Au moins un terrain est requis");
+        }
+        if (pitchIds.size() > MAX_AVAILABILITY_PITCHES) {
+            throw new IllegalArgumentException("Maximum " + MAX_AVAILABILITY_PITCHES + " terrains par requête");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit être après la date de début");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to.plusDays(1))) {
+            throw new IllegalArgumentException("Maximum " + MAX_AVAILABILITY_DAYS + " jours par requête");
+        }
+        if (slotMinutes != null && (slotMinutes <= 0 || slotMinutes > 240)) {
+            throw new IllegalArgumentException("Durée de créneau invalide");
+        }
 
-        if (!pitch.getCreatedBy().equals(userId)) {
-            throw new RuntimeException("NOT_PITCH_OWNER");
+        List<Pitch> pitches = pitchRepository.findAllById(new LinkedHashSet<>(pitchIds));
+        Map<SlotOccupancyService.DayKey, DayOccupancy> occupancies = slotOccupancyService.getOccupancies(
+                pitches.stream().map(Pitch::getId).toList(), from, to);
+
+        List<PitchAvailabilityResponse> responses = new ArrayList<>();
+        for (Pitch pitch : pitches) {
+            PitchScheduleService.PitchSchedule schedule = pitchScheduleService.getSchedule(pitch);
+            int pitchSlotMinutes = slotMinutes != null ? slotMinutes : schedule.slotMinutes();
+
+            List<PitchAvailabilityResponse.DayAvailability> days = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                DayTemplate template = schedule.templateFor(day);
+                DayOccupancy occupancy = occupancies.get(new SlotOccupancyService.DayKey(pitch.getId(), day));
+
+                days.add(PitchAvailabilityResponse.DayAvailability.builder()
+                        .day(day)
+                        .openTime(template.isClosed() ? null : toTime(template.firstOpenMinute()))
+                        .closeTime(template.isClosed() ? null : toTime(template.lastOpenMinute()))
+                        .slots(occupancy.toSlotString(template, pitchSlotMinutes))
+                        .build());
+            }
+
+            responses.add(PitchAvailabilityResponse.builder()
+                    .pitchId(pitch.getId())
+                    .pitchName(pitch.getName())
+                    .slotMinutes(pitchSlotMinutes)
+                    .days(days)
+                    .build());
         }
+        return responses;
+    }
 
-        LocalDate today = LocalDate.now();
-        LocalDate monday = today.with(DayOfWeek.MONDAY);
+    //---------------------SEARCH FREE PITCHES IN CITY-------------------------------------------------------------
+    public List<Pitch> findFreePitches(String city, LocalDate day, LocalTime time, int duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Durée invalide");
+        }
+
+        List<Pitch> candidates = pitchRepository.findByCityAndIsActiveTrueOrderByPriceAsc(city);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<SlotOccupancyService.Segment> segments = SlotOccupancyService.segments(day, time, duration);
+        LocalDate lastDay = segments.get(segments.size() - 1).day();
+
+        // Occupation de tous les terrains candidats en un seul aller-retour (ou depuis le cache)
+        Map<SlotOccupancyService.DayKey, DayOccupancy> occupancies = slotOccupancyService.getOccupancies(
+                candidates.stream().map(Pitch::getId).toList(), day, lastDay);
+
+        return candidates.stream()
+                .filter(pitch -> pitchScheduleService.isOpen(pitch, day, time, duration))
+                .filter(pitch -> segments.stream().allMatch(segment ->
+                        occupancies.get(new SlotOccupancyService.DayKey(pitch.getId(), segment.day()))
+                                .isFree(segment.startMinute(), segment.endMinute())))
+                .collect(Collectors.toList());
+    }
+
+    private LocalTime toTime(int minute) {
+        return minute >= DayOccupancy.MINUTES_PER_DAY ? LocalTime.MAX : LocalTime.of(minute / 60, minute % 60);
+    }
+
+    //---------------------GET WEEKLY STATS------------------------------------------------------------------
+    public Map<String, Long> getWeeklyStats(String pitchId, String userId) {
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
 
         Map<String, Long> stats = new LinkedHashMap<>();
-        for (int i = 0; i < 7; i++) {
-            LocalDate day = monday.plusDays(i);
-            long count = pitchRepository.countByPitchIdAndStatusAndDay(
-                    pitchId, ReservationStatus.CONFIRMED, day
-            );
-            stats.put(day.getDayOfWeek().name(), count); // "MONDAY", "TUESDAY"...
+        for (ManagerStatsResponse.PeriodStats day : managerStatsService.getStats(
+                pitchId, userId, StatsGranularity.DAY, monday, monday.plusDays(6)).getPeriods()) {
+            stats.put(day.getStart().getDayOfWeek().name(), day.getBookings()); // "MONDAY", "TUESDAY"...
         }
 
         return stats;
@@ -9,8 +9,15 @@ import com.app.sportify_backend.utils.CodeGenerator;
 import com.app.sportify_backend.repositories.TeamRepository;
 import com.app.sportify_backend.repositories.UserRepository;
 import com.app.sportify_backend.security.JwtService;
+import com.app.sportify_backend.security.PasswordHashingService;
+import com.app.sportify_backend.security.TokenVersionService;
+import com.app.sportify_backend.security.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -18,16 +25,22 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Random;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PlayerAuthService {
     private final UserRepository userRepository;
     private final TeamRepository teamRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final EmailService emailService;
+    private final TokenVersionService tokenVersionService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PasswordResetOtpService passwordResetOtpService;
+    private final ChangePropagationService changePropagationService;
+    private final UserUpdateService userUpdateService;
 
     public User registerUser(RegisterRequest request, MultipartFile image) {
 
@@ -48,7 +61,7 @@ public class PlayerAuthService {
         user.setLastname(request.getLastname());
         user.setEmail(request.getEmail());
         user.setPhone(request.getPhone());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
         user.setRole(request.getRole());
         user.setRegistrationDate(LocalDateTime.now());
 
@@ -70,7 +83,7 @@ public class PlayerAuthService {
                 Files.write(path, image.getBytes());
 
                 user.setProfileImageUrl("/uploads/profile/" + fileName);
-                user = userRepository.save(user);
+                userUpdateService.update(user.getId(), Update.update("profileImageUrl", user.getProfileImageUrl()));
             } catch (Exception e) {
                 throw new RuntimeException("Erreur lors de l'upload de l'image");
             }
@@ -83,7 +96,7 @@ public class PlayerAuthService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Aucun compte trouvé avec cet email"));
 
-        if(!passwordEncoder.matches(password, user.getPassword())) {
+        if(!passwordHashingService.matches(password, user.getPassword())) {
             throw new RuntimeException("Le mot de passe est incorrect");
         }
 
@@ -91,16 +104,36 @@ public class PlayerAuthService {
             throw new RuntimeException("Compte en attente de validation");
         }
 
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            rehashPassword(user, password);
+        }
+
         return jwtService.generateToken(user);
     }
 
+    // Met à niveau le coût BCrypt sans toucher au reste du document ni aux tokens émis
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            String upgraded = passwordHashingService.encode(rawPassword);
+            // Conditionné sur l'ancien hash : un changement de mot de passe concurrent n'est pas écrasé
+            userUpdateService.update(
+                    user.getId(),
+                    Criteria.where("password").is(user.getPassword()),
+                    Update.update("password", upgraded)
+            );
+        } catch (RuntimeException e) {
+            log.warn("Mise à niveau du hash ignorée pour {} : {}", user.getId(), e.getMessage());
+        }
+    }
+
     public User verifyManager(String userId){
         User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
         if(user.getRole() != Role.MANAGER){
             throw new RuntimeException("Seuls les managers peuvent être vérifiés");
         }
         user.setEnabled(true);
-        return userRepository.save(user);
+        userUpdateService.update(user.getId(), Update.update("isEnabled", true));
+        return user;
     }
 
     public User forgotPassword(ForgotPasswordRequest request){
@@ -109,16 +142,29 @@ public class PlayerAuthService {
         if(request.getNewPassword().length() < 8){
             throw new IllegalArgumentException("Le mot de passe doit contenir au moins 8 caractères");
         }
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        return userRepository.save(user);
+        user.setPassword(passwordHashingService.encode(request.getNewPassword()));
+        userUpdateService.update(user.getId(), Update.update("password", user.getPassword()));
+        tokenVersionService.revokeTokens(user.getId());
+        return user;
     }
 
+    // /api/auth/** ne passe pas par JwtAuthFilter : mêmes vérifications ici, révocation comprise
     public User autoLogin(String token) {
-        if (!jwtService.isTokenValid(token)) {
+        Claims claims;
+        try {
+            claims = verifiedTokenCache.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
             throw new RuntimeException("Token invalide");
         }
 
-        String email = jwtService.extractEmail(token);
+        if (jwtService.hasPrincipalClaims(claims)) {
+            String userId = claims.get(JwtService.CLAIM_USER_ID, String.class);
+            if (!tokenVersionService.isCurrent(userId, jwtService.extractTokenVersion(claims))) {
+                throw new RuntimeException("Token révoqué");
+            }
+        }
+
+        String email = claims.getSubject();
 
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("Utilisateur introuvable"));
@@ -136,33 +182,22 @@ public class PlayerAuthService {
     }
 
     public void generateOtp(User user) {
-        String otp = String.format("%06d", new Random().nextInt(999999));
-        user.setResetOtp(otp);
-        user.setOtpExpiration(LocalDateTime.now().plusMinutes(5));
-        userRepository.save(user);
-
+        String otp = passwordResetOtpService.createOtp(user.getEmail());
         emailService.sendOtpEmail(user.getEmail(), otp);
     }
 
     public boolean verifyOtp(String email, String otp) {
-        User user = getUserByEmail(email);
-
-        if(user.getResetOtp() == null || !user.getResetOtp().equals(otp)) return false;
-
-        if(user.getOtpExpiration().isBefore(LocalDateTime.now())) return false;
-
-        user.setResetOtp(null);
-        user.setOtpExpiration(null);
-        userRepository.save(user);
-        return true;
+        return passwordResetOtpService.verifyOtp(email, otp);
     }
 
     public User resetPassword(String email, String newPassword) {
         if(newPassword.length() < 8) throw new IllegalArgumentException("Le mot de passe doit contenir au moins 8 caractères");
 
         User user = getUserByEmail(email);
-        user.setPassword(passwordEncoder.encode(newPassword));
-        return userRepository.save(user);
+        user.setPassword(passwordHashingService.encode(newPassword));
+        userUpdateService.update(user.getId(), Update.update("password", user.getPassword()));
+        tokenVersionService.revokeTokens(user.getId());
+        return user;
     }
 
     public User updateProfile(
@@ -177,14 +212,19 @@ public class PlayerAuthService {
             throw new RuntimeException("PHONE_ALREADY_EXISTS");
         }
 
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        boolean passwordChanged = request.getPassword() != null && !request.getPassword().isEmpty();
+        if (passwordChanged) {
             if (currentPassword == null || currentPassword.isEmpty() ||
-                    !passwordEncoder.matches(currentPassword, user.getPassword())) {
+                    !passwordHashingService.matches(currentPassword, user.getPassword())) {
                 throw new RuntimeException("Mot de passe actuel incorrect");
             }
-            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
         }
 
+        String previousFirstname = user.getFirstname();
+        String previousLastname = user.getLastname();
+        String previousImageUrl = user.getProfileImageUrl();
+
         user.setFirstname(request.getFirstname());
         user.setLastname(request.getLastname());
         user.setEmail(request.getEmail());
@@ -204,6 +244,28 @@ public class PlayerAuthService {
             }
         }
 
-        return userRepository.save(user);
+        Update update = new Update()
+                .set("firstname", user.getFirstname())
+                .set("lastname", user.getLastname())
+                .set("email", user.getEmail())
+                .set("phone", user.getPhone())
+                .set("profileImageUrl", user.getProfileImageUrl());
+        if (passwordChanged) {
+            update.set("password", user.getPassword());
+        }
+        userUpdateService.update(user.getId(), update);
+
+        // Comme après une réinitialisation : anciens access tokens et refresh tokens invalidés
+        if (passwordChanged) {
+            tokenVersionService.revokeTokens(user.getId());
+        }
+
+        // Équipes et compositions gardent une copie du nom et de la photo
+        if (!Objects.equals(previousFirstname, user.getFirstname()) ||
+                !Objects.equals(previousLastname, user.getLastname()) ||
+                !Objects.equals(previousImageUrl, user.getProfileImageUrl())) {
+            changePropagationService.userChanged(user.getId());
+        }
+        return user;
     }
 }
@@ -0,0 +1,194 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.ExportFormat;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Export comptable des réservations d'un terrain. Les lignes sont lues sur un curseur Mongo
+ * (par lots de batchSize documents) et écrites directement dans la réponse : la mémoire
+ * utilisée ne dépend pas du nombre de réservations exportées.
+ */
+@Service
+@Slf4j
+public class ReservationExportService {
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private static final String[] COLUMNS = {
+            "id", "day", "hour", "duration", "status", "seriesId",
+            "senderTeamName", "adverseTeamName", "pitchPrice",
+            "scoreHome", "scoreAway", "createdAt", "updatedAt"
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final ManagerStatsService managerStatsService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Counter rows;
+
+    public ReservationExportService(
+            MongoTemplate mongoTemplate,
+            ManagerStatsService managerStatsService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservations.export.batch-size:1000}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.managerStatsService = managerStatsService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.rows = Counter.builder("reservations.export.rows")
+                .description("Lignes de réservations exportées")
+                .register(meterRegistry);
+    }
+
+    //---------------------EXPORT-------------------------------------------------------------------------------------
+    // Contrôles faits avant le début de la réponse : une erreur reste un vrai code HTTP
+    public StreamingResponseBody export(
+            String pitchId,
+            String userId,
+            LocalDate from,
+            LocalDate to,
+            List<ReservationStatus> statuses,
+            ExportFormat format
+    ) {
+        managerStatsService.getOwnedPitch(pitchId, userId);
+
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new IllegalArgumentException("La date de fin doit être après la date de début");
+        }
+
+        Query query = exportQuery(pitchId, from, to, statuses);
+        ExportFormat effectiveFormat = format != null ? format : ExportFormat.CSV;
+        return out -> write(query, effectiveFormat, out);
+    }
+
+    Query exportQuery(String pitchId, LocalDate from, LocalDate to, List<ReservationStatus> statuses) {
+        Criteria criteria = Criteria.where("pitchId").is(pitchId);
+        if (from != null || to != null) {
+            Criteria day = criteria.and("day");
+            if (from != null) {
+                day.gte(from);
+            }
+            if (to != null) {
+                day.lte(to);
+            }
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            criteria.and("status").in(statuses);
+        }
+
+        // Tri servi par l'index pitch_day_hour : pas de tri en mémoire côté serveur
+        Query query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "day", "hour"))
+                .cursorBatchSize(batchSize);
+        query.fields().include(
+                "day", "hour", "duration", "status", "seriesId",
+                "senderTeamName", "adverseTeamName", "pitchPrice",
+                "score", "createdAt", "updatedAt");
+        return query;
+    }
+
+    void write(Query query, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        if (format == ExportFormat.CSV) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        long count = 0;
+        try (Stream<Reservation> reservations = mongoTemplate.stream(query, Reservation.class)) {
+            for (Reservation reservation : (Iterable<Reservation>) reservations::iterator) {
+                Map<String, Object> row = toRow(reservation);
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write("\n");
+                }
+                count++;
+                // Un lot écrit = un lot envoyé au client
+                if (count % batchSize == 0) {
+                    writer.flush();
+                    rows.increment(batchSize);
+                }
+            }
+        } finally {
+            writer.flush();
+            rows.increment(count % batchSize);
+            log.info("Export de {} réservations terminé", count);
+        }
+    }
+
+    private static Map<String, Object> toRow(Reservation reservation) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", reservation.getId());
+        row.put("day", reservation.getDay());
+        row.put("hour", reservation.getHour());
+        row.put("duration", reservation.getDuration());
+        row.put("status", reservation.getStatus());
+        row.put("seriesId", reservation.getSeriesId());
+        row.put("senderTeamName", reservation.getSenderTeamName());
+        row.put("adverseTeamName", reservation.getAdverseTeamName());
+        row.put("pitchPrice", reservation.getPitchPrice());
+        row.put("scoreHome", reservation.getScore() != null ? reservation.getScore().getHome() : null);
+        row.put("scoreAway", reservation.getScore() != null ? reservation.getScore().getAway() : null);
+        row.put("createdAt", reservation.getCreatedAt());
+        row.put("updatedAt", reservation.getUpdatedAt());
+        return row;
+    }
+
+    //---------------------CSV----------------------------------------------------------------------------------------
+    private static void writeCsvLine(Writer writer, Map<String, Object> row) throws IOException {
+        boolean first = true;
+        for (Object value : row.values()) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            if (value instanceof String text) {
+                writer.write(csvField(text));
+            } else if (value != null) {
+                writer.write(value.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Les noms d'équipe sont saisis par les joueurs : pas de formule interprétée par le tableur
+    // (tabulation et retour chariot en tête sont aussi traités comme des préfixes de formule)
+    static String csvField(String value) {
+        String field = value;
+        if (!field.isEmpty() && "=+-@\t\r".indexOf(field.charAt(0)) >= 0) {
+            field = "'" + field;
+        }
+        if (field.indexOf(',') >= 0 || field.indexOf('"') >= 0 || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0) {
+            field = "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,250 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Notification;
+import com.app.sportify_backend.models.NotificationType;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Fait avancer les réservations dans le temps, par lots bornés :
+ * PENDING dont l'heure de début est passée -> EXPIRED,
+ * CONFIRMED dont le match est terminé -> COMPLETED.
+ */
+@Service
+@Slf4j
+public class ReservationLifecycleService {
+
+    private static final int DEFAULT_DURATION = 60;
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+    private final ReservationService reservationService;
+    private final PitchRollupService pitchRollupService;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public ReservationLifecycleService(
+            MongoTemplate mongoTemplate,
+            NotificationService notificationService,
+            ReservationService reservationService,
+            PitchRollupService pitchRollupService,
+            @Value("${app.reservations.lifecycle.batch-size:500}") int batchSize,
+            @Value("${app.reservations.lifecycle.max-batches:20}") int maxBatches
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationService = notificationService;
+        this.reservationService = reservationService;
+        this.pitchRollupService = pitchRollupService;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.reservations.lifecycle.interval-ms:60000}",
+            initialDelayString = "${app.reservations.lifecycle.interval-ms:60000}"
+    )
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int expired = expirePending(now);
+            int completed = completeFinished(now);
+            if (expired > 0 || completed > 0) {
+                log.info("Réservations expirées: {}, matchs terminés: {}", expired, completed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Passage du cycle de vie des réservations interrompu : {}", e.getMessage());
+        }
+    }
+
+    //---------------------EXPIRE PENDING-----------------------------------------------------------------------------
+    public int expirePending(LocalDateTime now) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            List<Reservation> batch = findStartedBefore(ReservationStatus.PENDING, now);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<Reservation> expired = transition(batch, ReservationStatus.PENDING, ReservationStatus.EXPIRED, now);
+            pitchRollupService.recordTransitions(expired, ReservationStatus.PENDING, ReservationStatus.EXPIRED);
+            notificationService.sendAll(expired.stream()
+                    .map(this::expiredNotification)
+                    .collect(Collectors.toList()));
+            total += expired.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    //---------------------COMPLETE FINISHED--------------------------------------------------------------------------
+    public int completeFinished(LocalDateTime now) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            List<Reservation> batch = findStartedBefore(ReservationStatus.CONFIRMED, now);
+
+            // Les matchs en cours sont commencés mais pas terminés : ils restent CONFIRMED
+            List<Reservation> finished = batch.stream()
+                    .filter(r -> !endOf(r).isAfter(now))
+                    .collect(Collectors.toList());
+            if (finished.isEmpty()) {
+                break;
+            }
+
+            List<Reservation> unscored = new ArrayList<>();
+            for (Reservation reservation : finished) {
+                if (reservation.getScore() == null) {
+                    unscored.add(reservation);
+                } else if (completeScored(reservation.getId(), now)) {
+                    total++;
+                }
+            }
+
+            List<Reservation> completed = transition(unscored, ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED, now);
+            pitchRollupService.recordTransitions(completed, ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED);
+            notificationService.sendAll(completed.stream()
+                    .map(this::completedNotification)
+                    .collect(Collectors.toList()));
+            total += completed.size();
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    // Un match noté met à jour les statistiques des équipes : on récupère le document complet
+    private boolean completeScored(String reservationId, LocalDateTime now) {
+        Reservation reservation = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(reservationId).and("status").is(ReservationStatus.CONFIRMED)),
+                new Update().set("status", ReservationStatus.COMPLETED).set("updatedAt", now).inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Reservation.class
+        );
+        if (reservation == null) {
+            return false;
+        }
+        pitchRollupService.recordTransition(reservation, ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED);
+        reservationService.onMatchCompleted(reservation);
+        return true;
+    }
+
+    //---------------------BATCH HELPERS------------------------------------------------------------------------------
+    // Plage indexée (status, day, hour) : réservations de ce statut dont l'heure de début est passée
+    private List<Reservation> findStartedBefore(ReservationStatus status, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("status").is(status).orOperator(
+                Criteria.where("day").lt(now.toLocalDate()),
+                Criteria.where("day").is(now.toLocalDate()).and("hour").lte(now.toLocalTime())
+        ));
+        query.with(Sort.by(Sort.Order.asc("day"), Sort.Order.asc("hour")));
+        query.limit(batchSize);
+        query.fields().include("pitchId", "pitchName", "day", "hour", "duration", "pitchPrice",
+                "senderId", "receiverId", "senderTeamName", "adverseTeamName", "score");
+        return mongoTemplate.find(query, Reservation.class);
+    }
+
+    /**
+     * Passe le lot de from à to en un seul updateMany. Une réservation modifiée entre-temps
+     * (confirmée, annulée...) n'est pas touchée et ne figure pas dans le résultat. Les lignes
+     * appliquées sont relues par le jeton de ce passage : une autre instance qui traite le même
+     * lot au même instant ne peut pas les revendiquer.
+     */
+    private List<Reservation> transition(List<Reservation> batch, ReservationStatus from, ReservationStatus to, LocalDateTime now) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+
+        List<String> ids = batch.stream().map(Reservation::getId).collect(Collectors.toList());
+        String transitionToken = UUID.randomUUID().toString();
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(from)),
+                new Update()
+                        .set("status", to)
+                        .set("updatedAt", now)
+                        .set("transitionToken", transitionToken)
+                        .inc("version", 1),
+                Reservation.class
+        ).getModifiedCount();
+
+        if (modified == batch.size()) {
+            return batch;
+        }
+
+        Query applied = Query.query(Criteria.where("_id").in(ids).and("transitionToken").is(transitionToken));
+        applied.fields().include("_id");
+        Set<String> appliedIds = mongoTemplate.find(applied, Reservation.class).stream()
+                .map(Reservation::getId)
+                .collect(Collectors.toSet());
+
+        return batch.stream()
+                .filter(r -> appliedIds.contains(r.getId()))
+                .collect(Collectors.toList());
+    }
+
+    private static LocalDateTime endOf(Reservation reservation) {
+        int duration = reservation.getDuration() != null && reservation.getDuration() > 0
+                ? reservation.getDuration()
+                : DEFAULT_DURATION;
+        return LocalDateTime.of(reservation.getDay(), reservation.getHour()).plusMinutes(duration);
+    }
+
+    //---------------------NOTIFICATIONS------------------------------------------------------------------------------
+    private Notification expiredNotification(Reservation reservation) {
+        return Notification.builder()
+                .recipientId(reservation.getSenderId())
+                .senderId(reservation.getReceiverId())
+                .title("Demande de réservation expirée")
+                .message("Votre demande pour " + reservation.getPitchName() + " le " + reservation.getDay() +
+                        " à " + reservation.getHour() + " n'a pas reçu de réponse à temps")
+                .type(NotificationType.RESERVATION_EXPIRED)
+                .referenceId(reservation.getPitchId())
+                .data(data(reservation))
+                .build();
+    }
+
+    private Notification completedNotification(Reservation reservation) {
+        return Notification.builder()
+                .recipientId(reservation.getSenderId())
+                .senderId(reservation.getReceiverId())
+                .title("Match terminé")
+                .message("Le match contre " + reservation.getAdverseTeamName() + " est terminé, " +
+                        "vous pouvez saisir le score")
+                .type(NotificationType.MATCH_COMPLETED)
+                .referenceId(reservation.getPitchId())
+                .data(data(reservation))
+                .build();
+    }
+
+    private static Map<String, Object> data(Reservation reservation) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("reservationId", reservation.getId());
+        data.put("pitchId", reservation.getPitchId());
+        data.put("pitchName", reservation.getPitchName());
+        data.put("day", reservation.getDay().toString());
+        data.put("hour", reservation.getHour().toString());
+        return data;
+    }
+}
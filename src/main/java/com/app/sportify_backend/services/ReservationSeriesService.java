@@ -0,0 +1,362 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.ReservationSeriesResponse;
+import com.app.sportify_backend.models.*;
+import com.app.sportify_backend.repositories.PitchRepository;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Séries de réservations hebdomadaires. Les occurrences sont vérifiées en une lecture
+ * d'occupation, insérées en un insertMany et confirmées ou refusées ensemble par le gérant.
+ * Sans transaction Mongo, la décision est portée par le statut de la série (mise à jour
+ * conditionnelle) et la confirmation par une seule prise de tranches dans pitch_slots.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationSeriesService {
+
+    private static final int MAX_WEEKS = 26;
+
+    private final TeamRepository teamRepository;
+    private final PitchRepository pitchRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final SlotOccupancyService slotOccupancyService;
+    private final SlotClaimService slotClaimService;
+    private final PitchScheduleService pitchScheduleService;
+    private final PitchRollupService pitchRollupService;
+    private final MongoTemplate mongoTemplate;
+
+    //---------------------CREATE SERIES------------------------------------------------------------------------------
+    public ReservationSeriesResponse createSeries(
+            String senderTeamId,
+            String adverseTeamId,
+            String pitchId,
+            LocalDate firstDay,
+            LocalTime hour,
+            Integer duration,
+            Integer weeks,
+            String senderId
+    ) {
+
+        if (weeks == null || weeks < 2 || weeks > MAX_WEEKS) {
+            throw new IllegalArgumentException("Une série compte entre 2 et " + MAX_WEEKS + " semaines");
+        }
+
+        Team senderTeam = teamRepository.findById(senderTeamId)
+                .orElseThrow(() -> new RuntimeException("SENDER_TEAM_NOT_FOUND"));
+
+        if (!senderTeam.getOwnerId().equals(senderId)) {
+            throw new RuntimeException("NOT_TEAM_OWNER");
+        }
+
+        Team adverseTeam = teamRepository.findById(adverseTeamId)
+                .orElseThrow(() -> new RuntimeException("ADVERSE_TEAM_NOT_FOUND"));
+
+        if (senderTeam.getId().equals(adverseTeam.getId())) {
+            throw new RuntimeException("CANNOT_PLAY_AGAINST_OWN_TEAM");
+        }
+
+        Pitch pitch = pitchRepository.findById(pitchId)
+                .orElseThrow(() -> new RuntimeException("PITCH_NOT_FOUND"));
+
+        if (!pitch.isActive()) {
+            throw new RuntimeException("PITCH_NOT_ACTIVE");
+        }
+
+        if (firstDay.isBefore(LocalDate.now()) ||
+                (firstDay.isEqual(LocalDate.now()) && hour.isBefore(LocalTime.now()))) {
+            throw new RuntimeException("INVALID_DATE_TIME");
+        }
+
+        userRepository.findById(pitch.getCreatedBy())
+                .orElseThrow(() -> new RuntimeException("PITCH_OWNER_NOT_FOUND"));
+
+        LocalDateTime now = LocalDateTime.now();
+        ReservationSeries series = ReservationSeries.builder()
+                .pitchId(pitch.getId())
+                .pitchName(pitch.getName())
+                .firstDay(firstDay)
+                .lastDay(firstDay.plusWeeks(weeks - 1))
+                .hour(hour)
+                .duration(duration)
+                .weeks(weeks)
+                .senderTeamId(senderTeam.getId())
+                .senderTeamName(senderTeam.getName())
+                .adverseTeamId(adverseTeam.getId())
+                .adverseTeamName(adverseTeam.getName())
+                .senderId(senderId)
+                .receiverId(pitch.getCreatedBy())
+                .status(ReservationStatus.PENDING)
+                .createdAt(now)
+                .build();
+
+        List<Reservation> occurrences = new ArrayList<>();
+        for (int week = 0; week < weeks; week++) {
+            LocalDate day = firstDay.plusWeeks(week);
+            if (!pitchScheduleService.isOpen(pitch, day, hour, duration)) {
+                throw new RuntimeException("PITCH_CLOSED");
+            }
+            occurrences.add(Reservation.builder()
+                    .pitchId(pitch.getId())
+                    .pitchName(pitch.getName())
+                    .pitchAddress(pitch.getAddress())
+                    .pitchImageUrl(pitch.getImageUrl())
+                    .pitchPrice(pitch.getPrice())
+                    .day(day)
+                    .hour(hour)
+                    .duration(duration)
+                    .senderTeamId(senderTeam.getId())
+                    .senderTeamName(senderTeam.getName())
+                    .senderTeamLogoUrl(senderTeam.getLogoUrl())
+                    .adverseTeamId(adverseTeam.getId())
+                    .adverseTeamName(adverseTeam.getName())
+                    .adverseTeamLogoUrl(adverseTeam.getLogoUrl())
+                    .senderId(senderId)
+                    .receiverId(pitch.getCreatedBy())
+                    .status(ReservationStatus.PENDING)
+                    .createdAt(now)
+                    .build());
+        }
+
+        // Une seule lecture d'occupation pour toutes les semaines
+        List<Reservation> conflicts = slotOccupancyService.findConflicts(occurrences);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Créneau déjà réservé le " + days(conflicts));
+        }
+
+        series = mongoTemplate.insert(series);
+        for (Reservation occurrence : occurrences) {
+            occurrence.setSeriesId(series.getId());
+        }
+        occurrences = new ArrayList<>(mongoTemplate.insert(occurrences, Reservation.class));
+        pitchRollupService.recordTransitions(occurrences, null, ReservationStatus.PENDING);
+
+        Map<String, Object> data = data(series);
+        data.put("senderTeamName", senderTeam.getName());
+        data.put("adverseTeamName", adverseTeam.getName());
+
+        notificationService.send(
+                pitch.getCreatedBy(),
+                senderId,
+                "Nouvelle demande de réservation hebdomadaire",
+                senderTeam.getName() + " souhaite réserver " + pitch.getName() + " chaque semaine à " + hour +
+                        ", du " + series.getFirstDay() + " au " + series.getLastDay() + " (" + weeks + " matchs)",
+                NotificationType.RESERVATION_SERIES_REQUEST,
+                pitch.getId(),
+                data
+        );
+
+        return ReservationSeriesResponse.from(series, occurrences);
+    }
+
+    //---------------------CONFIRM SERIES-----------------------------------------------------------------------------
+    /**
+     * Confirme toutes les occurrences encore en attente. La série passe d'abord à CONFIRMED
+     * (un refus concurrent échoue alors), puis les tranches sont prises en un seul insertMany :
+     * si une occurrence est en conflit, aucune n'est confirmée et la série revient à PENDING.
+     */
+    public ReservationSeriesResponse confirmSeries(String seriesId, String userId) {
+        ReservationSeries series = getManagedSeries(seriesId, userId);
+        // Les occurrences déjà commencées sont laissées à l'expiration automatique
+        LocalDateTime now = LocalDateTime.now();
+        List<Reservation> pending = findOccurrences(seriesId, ReservationStatus.PENDING).stream()
+                .filter(r -> LocalDateTime.of(r.getDay(), r.getHour()).isAfter(now))
+                .collect(Collectors.toList());
+
+        if (series.getStatus() != ReservationStatus.PENDING || pending.isEmpty()) {
+            throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
+        }
+
+        List<Reservation> conflicts = slotOccupancyService.findConflicts(pending);
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException("Créneau déjà réservé le " + days(conflicts));
+        }
+
+        decide(series, ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+        List<Reservation> confirmed;
+        try {
+            confirmed = slotClaimService.confirmAll(pending, ReservationStatus.PENDING);
+        } catch (RuntimeException e) {
+            decide(series, ReservationStatus.CONFIRMED, ReservationStatus.PENDING);
+            throw e;
+        }
+
+        confirmed.forEach(slotOccupancyService::markOccupied);
+        pitchRollupService.recordTransitions(confirmed, ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+        Map<String, Object> data = data(series);
+        data.put("confirmedCount", confirmed.size());
+
+        notificationService.send(
+                series.getSenderId(),
+                userId,
+                "Réservation hebdomadaire confirmée",
+                "Votre réservation de " + series.getPitchName() + " chaque semaine à " + series.getHour() +
+                        " a été confirmée (" + confirmed.size() + " matchs)",
+                NotificationType.RESERVATION_CONFIRMED,
+                series.getPitchId(),
+                data
+        );
+
+        return ReservationSeriesResponse.from(series, findOccurrences(seriesId, null));
+    }
+
+    //---------------------REJECT SERIES------------------------------------------------------------------------------
+    public ReservationSeriesResponse rejectSeries(String seriesId, String userId) {
+        ReservationSeries series = getManagedSeries(seriesId, userId);
+
+        if (series.getStatus() != ReservationStatus.PENDING) {
+            throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
+        }
+
+        decide(series, ReservationStatus.PENDING, ReservationStatus.REJECTED);
+
+        List<Reservation> pending = findOccurrences(seriesId, ReservationStatus.PENDING);
+        List<Reservation> rejected = rejectOccurrences(pending);
+        pitchRollupService.recordTransitions(rejected, ReservationStatus.PENDING, ReservationStatus.REJECTED);
+
+        notificationService.send(
+                series.getSenderId(),
+                userId,
+                "Réservation hebdomadaire refusée",
+                "Votre réservation de " + series.getPitchName() + " chaque semaine à " + series.getHour() +
+                        " a été refusée",
+                NotificationType.RESERVATION_REJECTED,
+                series.getPitchId(),
+                data(series)
+        );
+
+        return ReservationSeriesResponse.from(series, findOccurrences(seriesId, null));
+    }
+
+    // Un seul updateMany ; les occurrences modifiées entre-temps (expirées...) sont écartées
+    private List<Reservation> rejectOccurrences(List<Reservation> pending) {
+        if (pending.isEmpty()) {
+            return pending;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = pending.stream().map(Reservation::getId).collect(Collectors.toList());
+        String transitionToken = UUID.randomUUID().toString();
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(ReservationStatus.PENDING)),
+                new Update()
+                        .set("status", ReservationStatus.REJECTED)
+                        .set("updatedAt", now)
+                        .set("transitionToken", transitionToken)
+                        .inc("version", 1),
+                Reservation.class
+        ).getModifiedCount();
+
+        if (modified == pending.size()) {
+            return pending;
+        }
+
+        Query applied = Query.query(Criteria.where("_id").in(ids).and("transitionToken").is(transitionToken));
+        applied.fields().include("_id");
+        Set<String> appliedIds = mongoTemplate.find(applied, Reservation.class).stream()
+                .map(Reservation::getId)
+                .collect(Collectors.toSet());
+
+        return pending.stream()
+                .filter(r -> appliedIds.contains(r.getId()))
+                .collect(Collectors.toList());
+    }
+
+    //---------------------GET SERIES---------------------------------------------------------------------------------
+    public ReservationSeriesResponse getSeries(String seriesId, String userId) {
+        ReservationSeries series = mongoTemplate.findById(seriesId, ReservationSeries.class);
+        if (series == null) {
+            throw new RuntimeException("RESERVATION_SERIES_NOT_FOUND");
+        }
+
+        if (!series.getSenderId().equals(userId) && !series.getReceiverId().equals(userId)) {
+            throw new RuntimeException("NOT_ALLOWED");
+        }
+
+        return ReservationSeriesResponse.from(series, findOccurrences(seriesId, null));
+    }
+
+    //---------------------HELPERS------------------------------------------------------------------------------------
+    private ReservationSeries getManagedSeries(String seriesId, String userId) {
+        ReservationSeries series = mongoTemplate.findById(seriesId, ReservationSeries.class);
+        if (series == null) {
+            throw new RuntimeException("RESERVATION_SERIES_NOT_FOUND");
+        }
+
+        if (!series.getReceiverId().equals(userId)) {
+            throw new RuntimeException("NOT_PITCH_OWNER");
+        }
+        return series;
+    }
+
+    // Passage conditionnel du statut de la série : un seul des deux gérants concurrents l'emporte
+    private void decide(ReservationSeries series, ReservationStatus from, ReservationStatus to) {
+        LocalDateTime now = LocalDateTime.now();
+        long modified = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(series.getId()).and("status").is(from)),
+                new Update().set("status", to).set("updatedAt", now),
+                ReservationSeries.class
+        ).getModifiedCount();
+
+        if (modified == 0) {
+            throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
+        }
+
+        series.setStatus(to);
+        series.setUpdatedAt(now);
+    }
+
+    // Index (seriesId, status, day)
+    private List<Reservation> findOccurrences(String seriesId, ReservationStatus status) {
+        Criteria criteria = Criteria.where("seriesId").is(seriesId);
+        if (status != null) {
+            criteria = criteria.and("status").is(status);
+        }
+        return mongoTemplate.find(
+                Query.query(criteria).with(Sort.by(Sort.Order.asc("day"))),
+                Reservation.class
+        );
+    }
+
+    private static String days(List<Reservation> reservations) {
+        return reservations.stream()
+                .map(r -> r.getDay().toString())
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Map<String, Object> data(ReservationSeries series) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("seriesId", series.getId());
+        data.put("pitchId", series.getPitchId());
+        data.put("pitchName", series.getPitchName());
+        data.put("firstDay", series.getFirstDay().toString());
+        data.put("lastDay", series.getLastDay().toString());
+        data.put("hour", series.getHour().toString());
+        data.put("weeks", series.getWeeks());
+        return data;
+    }
+}
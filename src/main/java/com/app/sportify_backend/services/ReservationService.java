@@ -1,11 +1,23 @@
 package com.app.sportify_backend.services;
 
+import com.app.sportify_backend.dto.CursorPage;
 import com.app.sportify_backend.dto.ReservationResponse;
 import com.app.sportify_backend.dto.TeamStatsResponse;
 import com.app.sportify_backend.exception.ResourceNotFoundException;
 import com.app.sportify_backend.models.*;
 import com.app.sportify_backend.repositories.*;
+import com.app.sportify_backend.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +38,29 @@ public class ReservationService {
     private final UserRepository userRepository;
     private final NotificationService notificationService;
     private final TeamStatsRepository teamStatsRepository;
+    private final SlotOccupancyService slotOccupancyService;
+    private final SlotClaimService slotClaimService;
+    private final PitchScheduleService pitchScheduleService;
+    private final MongoTemplate mongoTemplate;
+    private final TeamStatsService teamStatsService;
+    private final PitchRollupService pitchRollupService;
+    private final OutboxService outboxService;
+    private final OptimisticRetryService optimisticRetryService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.asc("day"), Sort.Order.asc("hour"), Sort.Order.asc("_id"));
+
+    // Champs lus par ReservationResponse.from
+    private static final String[] RESPONSE_FIELDS = {
+            "pitchId", "pitchName", "pitchAddress", "pitchImageUrl", "pitchPrice",
+            "day", "hour", "duration", "seriesId",
+            "senderTeamId", "senderTeamName", "senderTeamLogoUrl",
+            "adverseTeamId", "adverseTeamName", "adverseTeamLogoUrl",
+            "senderId", "receiverId", "status",
+            "cancelledBySender", "cancelledByReceiver", "score",
+            "createdAt", "updatedAt"
+    };
 
     //---------------------CREATE RESERVATION------------------------------------------------------------------------
     @Transactional
@@ -60,20 +95,16 @@ public class ReservationService {
             throw new RuntimeException("PITCH_NOT_ACTIVE");
         }
 
+        if (!pitchScheduleService.isOpen(pitch, day, hour, duration)) {
+            throw new RuntimeException("PITCH_CLOSED");
+        }
+
         if (day.isBefore(LocalDate.now()) ||
                 (day.isEqual(LocalDate.now()) && hour.isBefore(LocalTime.now()))) {
             throw new RuntimeException("INVALID_DATE_TIME");
         }
 
-        Optional<Reservation> existingReservation = reservationRepository
-                .findByPitchIdAndDayAndHourAndStatus(
-                        pitchId,
-                        day,
-                        hour,
-                        ReservationStatus.CONFIRMED
-                );
-
-        if (existingReservation.isPresent()) {
+        if (!slotOccupancyService.isAvailable(pitchId, day, hour, duration)) {
             throw new RuntimeException("TIME_SLOT_ALREADY_BOOKED");
         }
 
@@ -102,6 +133,7 @@ public class ReservationService {
                 .build();
 
         reservationRepository.save(reservation);
+        pitchRollupService.recordTransition(reservation, null, ReservationStatus.PENDING);
 
         Map<String, Object> data = new HashMap<>();
         data.put("reservationId", reservation.getId());
@@ -141,22 +173,7 @@ public class ReservationService {
             throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
         }
 
-        Optional<Reservation> conflictingReservation = reservationRepository
-                .findByPitchIdAndDayAndHourAndStatus(
-                        reservation.getPitchId(),
-                        reservation.getDay(),
-                        reservation.getHour(),
-                        ReservationStatus.CONFIRMED
-                );
-
-        if (conflictingReservation.isPresent() &&
-                !conflictingReservation.get().getId().equals(reservationId)) {
-            throw new RuntimeException("TIME_SLOT_ALREADY_BOOKED");
-        }
-
-        reservation.setStatus(ReservationStatus.CONFIRMED);
-        reservation.setUpdatedAt(LocalDateTime.now());
-        reservationRepository.save(reservation);
+        confirmSlot(reservation, ReservationStatus.PENDING);
 
         Team senderTeam = teamRepository.findById(reservation.getSenderTeamId())
                 .orElseThrow(() -> new RuntimeException("TEAM_NOT_FOUND"));
@@ -183,6 +200,11 @@ public class ReservationService {
     //---------------------REJECT RESERVATION---------------------------------------
     @Transactional
     public void rejectReservation(String reservationId, String userId) {
+        optimisticRetryService.run("reservation.reject", () -> doRejectReservation(reservationId, userId));
+    }
+
+    // Relu à chaque tentative ; la première écriture est le save versionné
+    private void doRejectReservation(String reservationId, String userId) {
 
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("RESERVATION_NOT_FOUND"));
@@ -199,6 +221,7 @@ public class ReservationService {
         reservation.setStatus(ReservationStatus.REJECTED);
         reservation.setUpdatedAt(LocalDateTime.now());
         reservationRepository.save(reservation);
+        pitchRollupService.recordTransition(reservation, ReservationStatus.PENDING, ReservationStatus.REJECTED);
 
         Map<String, Object> data = new HashMap<>();
         data.put("reservationId", reservation.getId());
@@ -225,6 +248,10 @@ public class ReservationService {
             String reservationId,
             String userId
     ) {
+        optimisticRetryService.run("reservation.cancel", () -> doCancelReservation(reservationId, userId));
+    }
+
+    private void doCancelReservation(String reservationId, String userId) {
 
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("RESERVATION_NOT_FOUND"));
@@ -249,9 +276,17 @@ public class ReservationService {
             reservation.setCancelledByReceiver(true);
         }
 
+        ReservationStatus previousStatus = reservation.getStatus();
+        boolean wasConfirmed = previousStatus == ReservationStatus.CONFIRMED;
+
         reservation.setStatus(ReservationStatus.CANCELLED);
         reservation.setUpdatedAt(LocalDateTime.now());
         reservationRepository.save(reservation);
+        pitchRollupService.recordTransition(reservation, previousStatus, ReservationStatus.CANCELLED);
+
+        if (wasConfirmed) {
+            releaseSlot(reservation);
+        }
 
         String notificationReceiverId = isSender ? reservation.getReceiverId() : reservation.getSenderId();
         String cancellerName = isSender ? reservation.getSenderTeamName() : "Le propriétaire";
@@ -297,37 +332,68 @@ public class ReservationService {
     }
 
     //---------------------GET TEAM RESERVATIONS------------------------------------------------------------------
-    public List<ReservationResponse> getTeamReservations(String teamId, String userId) {
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new ResourceNotFoundException("Équipe non trouvée"));
-
-        List<Reservation> reservations = new ArrayList<>();
-
-        List<Reservation> senderReservations = reservationRepository
-                .findBySenderTeamIdAndCancelledBySenderFalse(teamId);
-        reservations.addAll(senderReservations);
-
-        List<Reservation> adverseReservations = reservationRepository
-                .findByAdverseTeamId(teamId);
-        reservations.addAll(adverseReservations);
-
-        Map<String, Reservation> uniqueReservations = reservations.stream()
-                .collect(Collectors.toMap(
-                        Reservation::getId,
-                        r -> r,
-                        (existing, replacement) -> existing
-                ));
-
-        System.out.println("Reservations for team " + teamId + ": " + uniqueReservations.size());
-        uniqueReservations.values().forEach(r ->
-                System.out.println("   - Reservation " + r.getId() + ": " + r.getStatus())
+    /**
+     * Réservations d'une équipe (émise ou reçue) en une seule requête $or, triées par
+     * (day, hour, id) et paginées par curseur : nextCursor reprend juste après le dernier élément.
+     */
+    public CursorPage<ReservationResponse> getTeamReservations(String teamId, String userId, String cursor, Integer size) {
+        if (!teamRepository.existsById(teamId)) {
+            throw new ResourceNotFoundException("Équipe non trouvée");
+        }
+
+        Integer pageSize = pageSize(cursor, size);
+
+        Criteria team = new Criteria().orOperator(
+                Criteria.where("senderTeamId").is(teamId).and("cancelledBySender").is(false),
+                Criteria.where("adverseTeamId").is(teamId)
         );
 
-        return uniqueReservations.values().stream()
-                .map(ReservationResponse::from)
-                .sorted(Comparator.comparing(ReservationResponse::getDay)
-                        .thenComparing(ReservationResponse::getHour))
-                .collect(Collectors.toList());
+        Query query = Query.query(afterCursor(team, cursor)).with(KEYSET_SORT);
+        if (pageSize != null) {
+            query.limit(pageSize + 1);
+        }
+        query.fields().include(RESPONSE_FIELDS);
+
+        return toPage(mongoTemplate.find(query, Reservation.class), pageSize);
+    }
+
+    //---------------------KEYSET PAGINATION--------------------------------------------------------------------------
+    // Sans curseur ni taille, la liste complète est renvoyée comme avant la pagination (null = pas de limite)
+    private static Integer pageSize(String cursor, Integer size) {
+        if (size == null && (cursor == null || cursor.isBlank())) {
+            return null;
+        }
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Ajoute aux critères la condition (day, hour, _id) > dernier élément de la page précédente
+    private static Criteria afterCursor(Criteria criteria, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return criteria;
+        }
+        String[] last = KeysetCursor.decode(cursor, 3);
+        LocalDate day = LocalDate.parse(last[0]);
+        LocalTime hour = LocalTime.parse(last[1]);
+        return new Criteria().andOperator(criteria, new Criteria().orOperator(
+                Criteria.where("day").gt(day),
+                Criteria.where("day").is(day).and("hour").gt(hour),
+                Criteria.where("day").is(day).and("hour").is(hour).and("_id").gt(new ObjectId(last[2]))
+        ));
+    }
+
+    // Les requêtes lisent pageSize + 1 lignes : la ligne en trop signale une page suivante
+    private static CursorPage<ReservationResponse> toPage(List<Reservation> reservations, Integer pageSize) {
+        String nextCursor = null;
+        if (pageSize != null && reservations.size() > pageSize) {
+            reservations = reservations.subList(0, pageSize);
+            Reservation last = reservations.get(pageSize - 1);
+            nextCursor = KeysetCursor.encode(last.getDay().toString(), last.getHour().toString(), last.getId());
+        }
+
+        return new CursorPage<>(
+                reservations.stream().map(ReservationResponse::from).collect(Collectors.toList()),
+                nextCursor
+        );
     }
 
     //---------------------UPDATE SCORE------------------------------------------------------------------------------
@@ -367,78 +433,45 @@ public class ReservationService {
                 .away(awayScore)
                 .build();
 
-        reservation.setScore(score);
-
+        LocalDateTime now = LocalDateTime.now();
         LocalDateTime matchDateTime = LocalDateTime.of(reservation.getDay(), reservation.getHour());
-        if (LocalDateTime.now().isAfter(matchDateTime.plusMinutes(reservation.getDuration()))) {
-            reservation.setStatus(ReservationStatus.COMPLETED);
+        boolean finished = now.isAfter(matchDateTime.plusMinutes(reservation.getDuration()));
+
+        Update update = new Update().set("score", score).set("updatedAt", now).inc("version", 1);
+        if (finished) {
+            update.set("status", ReservationStatus.COMPLETED);
         }
 
-        reservation.setUpdatedAt(LocalDateTime.now());
-        reservationRepository.save(reservation);
+        // L'ancien score est lu dans la même opération : deux corrections simultanées ne comptent pas double
+        Reservation previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(reservationId)
+                        .and("status").in(ReservationStatus.CONFIRMED, ReservationStatus.COMPLETED)),
+                update,
+                FindAndModifyOptions.options().returnNew(false),
+                Reservation.class
+        );
+        if (previous == null) {
+            throw new RuntimeException("RESERVATION_NOT_CONFIRMED");
+        }
+
+        reservation.setScore(score);
+        reservation.setStatus(finished ? ReservationStatus.COMPLETED : previous.getStatus());
+        reservation.setUpdatedAt(now);
+
+        teamStatsService.applyChange(reservation, previous.getStatus(), previous.getScore());
+        pitchRollupService.recordTransition(reservation, previous.getStatus(), reservation.getStatus());
 
         if (reservation.getStatus() == ReservationStatus.COMPLETED) {
-            notifyScoreUpdate(reservation);
-            recalculateAndSaveTeamStats(reservation.getSenderTeamId());
-            recalculateAndSaveTeamStats(reservation.getAdverseTeamId());
+            outboxService.publishScoreRecorded(reservation);
         }
 
         return ReservationResponse.from(reservation);
     }
 
-    //---------------------NOTIFY SCORE UPDATE-----------------------------------------------------------------------
-    private void notifyScoreUpdate(Reservation reservation) {
-
-        Team senderTeam = teamRepository.findById(reservation.getSenderTeamId())
-                .orElseThrow(() -> new RuntimeException("SENDER_TEAM_NOT_FOUND"));
-
-        Team adverseTeam = teamRepository.findById(reservation.getAdverseTeamId())
-                .orElseThrow(() -> new RuntimeException("ADVERSE_TEAM_NOT_FOUND"));
-
-        Map<String, Object> data = new HashMap<>();
-        data.put("reservationId", reservation.getId());
-        data.put("pitchId", reservation.getPitchId());
-        data.put("pitchName", reservation.getPitchName());
-        data.put("senderTeamName", senderTeam.getName());
-        data.put("adverseTeamName", adverseTeam.getName());
-        data.put("scoreHome", reservation.getScore().getHome());
-        data.put("scoreAway", reservation.getScore().getAway());
-        data.put("day", reservation.getDay().toString());
-        data.put("hour", reservation.getHour().toString());
-
-        String scoreText = senderTeam.getName() + " " +
-                reservation.getScore().getHome() + " - " +
-                reservation.getScore().getAway() + " " +
-                adverseTeam.getName();
-
-        for (Team.TeamMember member : senderTeam.getMembers()) {
-            if (!member.getUserId().equals(reservation.getSenderId()) &&
-                    !member.getUserId().equals(senderTeam.getOwnerId())) {  // <-- ajout
-                notificationService.send(
-                        reservation.getSenderId(),
-                        member.getUserId(),
-                        "Score final enregistré",
-                        "Le match contre " + adverseTeam.getName() + " est terminé: " + scoreText,
-                        NotificationType.MATCH_COMPLETED,
-                        senderTeam.getId(),
-                        data
-                );
-            }
-        }
-
-        for (Team.TeamMember member : adverseTeam.getMembers()) {
-            if (!member.getUserId().equals(adverseTeam.getOwnerId())) {  // <-- ajout
-                notificationService.send(
-                        reservation.getSenderId(),
-                        member.getUserId(),
-                        "Score final enregistré",
-                        "Le match contre " + senderTeam.getName() + " est terminé: " + scoreText,
-                        NotificationType.MATCH_COMPLETED,
-                        adverseTeam.getId(),
-                        data
-                );
-            }
-        }
+    // Match déjà noté passé de CONFIRMED à COMPLETED par le planificateur : mêmes effets que via updateScore
+    public void onMatchCompleted(Reservation reservation) {
+        teamStatsService.applyChange(reservation, ReservationStatus.CONFIRMED, reservation.getScore());
+        outboxService.publishScoreRecorded(reservation);
     }
 
     //---------------------GET RESERVATION BY ID---------------------------------------------------------------------
@@ -471,7 +504,11 @@ public class ReservationService {
     }
 
     //---------------------GET RESERVATIONS BY STATUS----------------------------------------------------------------
-    public List<ReservationResponse> getReservationsByStatus(String status, String userId) {
+    /**
+     * Réservations d'un statut donné où l'utilisateur est émetteur, destinataire ou propriétaire
+     * de l'équipe émettrice : une requête pour les ids d'équipes, une agrégation pour la page.
+     */
+    public CursorPage<ReservationResponse> getReservationsByStatus(String status, String userId, String cursor, Integer size) {
 
         ReservationStatus reservationStatus;
         try {
@@ -480,36 +517,33 @@ public class ReservationService {
             throw new RuntimeException("INVALID_STATUS");
         }
 
-        List<Team> myTeams = teamRepository.findByOwnerId(userId);
-        Set<String> myTeamIds = myTeams.stream()
+        Query teamsQuery = Query.query(Criteria.where("ownerId").is(userId));
+        teamsQuery.fields().include("_id");
+        List<String> myTeamIds = mongoTemplate.find(teamsQuery, Team.class).stream()
                 .map(Team::getId)
-                .collect(Collectors.toSet());
-
-        List<Reservation> senderReservations = reservationRepository
-                .findByStatusAndSenderIdOrReceiverId(reservationStatus, userId, userId);
+                .collect(Collectors.toList());
 
-        List<Reservation> teamReservations = new ArrayList<>();
-        for (String teamId : myTeamIds) {
-            teamReservations.addAll(
-                    reservationRepository.findBySenderTeamIdAndStatus(teamId, reservationStatus)
-            );
+        List<Criteria> participants = new ArrayList<>();
+        participants.add(Criteria.where("senderId").is(userId));
+        participants.add(Criteria.where("receiverId").is(userId));
+        if (!myTeamIds.isEmpty()) {
+            participants.add(Criteria.where("senderTeamId").in(myTeamIds));
         }
 
-        Map<String, Reservation> uniqueReservations = new HashMap<>();
+        Criteria criteria = Criteria.where("status").is(reservationStatus)
+                .orOperator(participants.toArray(new Criteria[0]));
 
-        for (Reservation r : senderReservations) {
-            uniqueReservations.put(r.getId(), r);
+        Integer pageSize = pageSize(cursor, size);
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(Aggregation.match(afterCursor(criteria, cursor)));
+        stages.add(Aggregation.sort(KEYSET_SORT));
+        if (pageSize != null) {
+            stages.add(Aggregation.limit(pageSize + 1));
         }
+        stages.add(Aggregation.project(RESPONSE_FIELDS));
+        TypedAggregation<Reservation> aggregation = Aggregation.newAggregation(Reservation.class, stages);
 
-        for (Reservation r : teamReservations) {
-            uniqueReservations.put(r.getId(), r);
-        }
-
-        return uniqueReservations.values().stream()
-                .map(ReservationResponse::from)
-                .sorted(Comparator.comparing(ReservationResponse::getDay)
-                        .thenComparing(ReservationResponse::getHour))
-                .collect(Collectors.toList());
+        return toPage(mongoTemplate.aggregate(aggregation, Reservation.class).getMappedResults(), pageSize);
     }
 
     //---------------------UPDATE RESERVATION STATUS-----------------------------------------------------------------
@@ -519,6 +553,11 @@ public class ReservationService {
             String status,
             String userId
     ) {
+        return optimisticRetryService.run("reservation.status",
+                () -> doUpdateReservationStatus(reservationId, status, userId));
+    }
+
+    private ReservationResponse doUpdateReservationStatus(String reservationId, String status, String userId) {
 
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("RESERVATION_NOT_FOUND"));
@@ -530,6 +569,14 @@ public class ReservationService {
             throw new RuntimeException("INVALID_STATUS");
         }
 
+        // EXPIRED est posé uniquement par ReservationLifecycleService et ne se quitte plus
+        if (newStatus == ReservationStatus.EXPIRED) {
+            throw new RuntimeException("INVALID_STATUS");
+        }
+        if (reservation.getStatus() == ReservationStatus.EXPIRED) {
+            throw new RuntimeException("RESERVATION_EXPIRED");
+        }
+
         boolean isSender = reservation.getSenderId().equals(userId);
         boolean isReceiver = reservation.getReceiverId().equals(userId);
 
@@ -542,6 +589,10 @@ public class ReservationService {
                 if (!isReceiver) {
                     throw new RuntimeException("ONLY_RECEIVER_CAN_CONFIRM");
                 }
+                if (reservation.getStatus() != ReservationStatus.CONFIRMED) {
+                    confirmSlot(reservation, reservation.getStatus());
+                    return ReservationResponse.from(reservation);
+                }
                 break;
 
             case REJECTED:
@@ -574,13 +625,41 @@ public class ReservationService {
                 break;
         }
 
+        ReservationStatus previousStatus = reservation.getStatus();
+
         reservation.setStatus(newStatus);
         reservation.setUpdatedAt(LocalDateTime.now());
         reservationRepository.save(reservation);
+        pitchRollupService.recordTransition(reservation, previousStatus, newStatus);
+
+        if (previousStatus == ReservationStatus.CONFIRMED &&
+                (newStatus == ReservationStatus.CANCELLED || newStatus == ReservationStatus.REJECTED)) {
+            releaseSlot(reservation);
+        }
+
+        // Un match noté qui entre dans COMPLETED ou en sort modifie les statistiques des équipes
+        teamStatsService.applyChange(reservation, previousStatus, reservation.getScore());
 
         return ReservationResponse.from(reservation);
     }
 
+    // Rejet rapide depuis la mémoire, puis prise atomique des tranches dans pitch_slots
+    private void confirmSlot(Reservation reservation, ReservationStatus expectedStatus) {
+        if (!slotOccupancyService.isAvailable(
+                reservation.getPitchId(), reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+            throw new RuntimeException("TIME_SLOT_ALREADY_BOOKED");
+        }
+
+        slotClaimService.confirm(reservation, expectedStatus);
+        slotOccupancyService.markOccupied(reservation);
+        pitchRollupService.recordTransition(reservation, expectedStatus, ReservationStatus.CONFIRMED);
+    }
+
+    private void releaseSlot(Reservation reservation) {
+        slotClaimService.release(reservation.getId());
+        slotOccupancyService.release(reservation);
+    }
+
     //---------------------GET TEAM STATS------------------------------------------------------------
     public TeamStatsResponse getTeamStats(String teamId) {
 
@@ -597,47 +676,4 @@ public class ReservationService {
 
         return TeamStatsResponse.from(stats);
     }
-
-    //---------------------RECALCULATE AND SAVE TEAM STATS-------------------------------------------
-    private void recalculateAndSaveTeamStats(String teamId) {
-
-        List<Reservation> completedMatches = reservationRepository
-                .findAllCompletedByTeam(ReservationStatus.COMPLETED, teamId);
-
-        int wins = 0, draws = 0, losses = 0;
-        int goalsScored = 0, goalsConceded = 0;
-        int played = 0;
-
-        for (Reservation r : completedMatches) {
-            if (r.getScore() == null) continue;
-
-            played++;
-            boolean isSender = r.getSenderTeamId().equals(teamId);
-
-            int myGoals    = isSender ? r.getScore().getHome() : r.getScore().getAway();
-            int theirGoals = isSender ? r.getScore().getAway() : r.getScore().getHome();
-
-            goalsScored   += myGoals;
-            goalsConceded += theirGoals;
-
-            if (myGoals > theirGoals)       wins++;
-            else if (myGoals == theirGoals) draws++;
-            else                            losses++;
-        }
-
-        TeamStats stats = teamStatsRepository.findByTeamId(teamId)
-                .orElse(TeamStats.builder().teamId(teamId).build());
-
-        stats.setPlayed(played);
-        stats.setWins(wins);
-        stats.setDraws(draws);
-        stats.setLosses(losses);
-        stats.setGoalsScored(goalsScored);
-        stats.setGoalsConceded(goalsConceded);
-        stats.setGoalDifference(goalsScored - goalsConceded);
-        stats.setWinRate(played == 0 ? 0.0 : (double) wins / played * 100);
-        stats.setUpdatedAt(LocalDateTime.now());
-
-        teamStatsRepository.save(stats);
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,266 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.PitchSlot;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prise atomique des créneaux dans pitch_slots. Deux confirmations concurrentes sur des
+ * créneaux qui se chevauchent se heurtent à l'index unique : une seule peut gagner,
+ * sans verrou global ni transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotClaimService {
+
+    public static final int SLOT_MINUTES = 5;
+
+    // Délai au-delà duquel une tranche dont la réservation n'est pas CONFIRMED est orpheline :
+    // une confirmation normale passe le statut quelques millisecondes après l'insertion
+    private static final Duration ORPHAN_GRACE = Duration.ofMinutes(2);
+
+    private final MongoTemplate mongoTemplate;
+
+    //---------------------CONFIRM------------------------------------------------------------------------------------
+    /**
+     * Prend les tranches de la réservation puis passe son statut de expectedStatus à CONFIRMED.
+     * Lève TIME_SLOT_ALREADY_BOOKED si une tranche appartient déjà à une autre réservation,
+     * RESERVATION_ALREADY_PROCESSED si le statut a changé entre-temps.
+     */
+    public void confirm(Reservation reservation, ReservationStatus expectedStatus) {
+        String claimId = claim(reservation);
+
+        LocalDateTime now = LocalDateTime.now();
+        long modified = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(reservation.getId()).and("status").is(expectedStatus)),
+                new Update().set("status", ReservationStatus.CONFIRMED).set("updatedAt", now).inc("version", 1),
+                Reservation.class
+        ).getModifiedCount();
+
+        if (modified == 0) {
+            releaseClaim(claimId);
+            throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
+        }
+
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+        reservation.setUpdatedAt(now);
+    }
+
+    /**
+     * Confirme plusieurs réservations ensemble : toutes leurs tranches sont insérées sous un même
+     * claimId, donc un seul conflit annule l'ensemble. Les réservations dont le statut a changé
+     * entre-temps rendent leurs tranches et ne figurent pas dans le résultat.
+     */
+    public List<Reservation> confirmAll(List<Reservation> reservations, ReservationStatus expectedStatus) {
+        String claimId = UUID.randomUUID().toString();
+        List<PitchSlot> slots = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            slots.addAll(toSlots(reservation, claimId));
+        }
+
+        try {
+            mongoTemplate.insert(slots, PitchSlot.class);
+        } catch (DuplicateKeyException e) {
+            releaseClaim(claimId);
+            throw new RuntimeException("TIME_SLOT_ALREADY_BOOKED");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<String> ids = reservations.stream().map(Reservation::getId).toList();
+        long modified = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("_id").in(ids).and("status").is(expectedStatus)),
+                new Update()
+                        .set("status", ReservationStatus.CONFIRMED)
+                        .set("updatedAt", now)
+                        .set("transitionToken", claimId)
+                        .inc("version", 1),
+                Reservation.class
+        ).getModifiedCount();
+
+        if (modified == 0) {
+            releaseClaim(claimId);
+            throw new RuntimeException("RESERVATION_ALREADY_PROCESSED");
+        }
+
+        List<Reservation> confirmed = reservations;
+        if (modified < reservations.size()) {
+            Query applied = Query.query(Criteria.where("_id").in(ids).and("transitionToken").is(claimId));
+            applied.fields().include("_id");
+            Set<String> appliedIds = mongoTemplate.find(applied, Reservation.class).stream()
+                    .map(Reservation::getId)
+                    .collect(Collectors.toSet());
+
+            confirmed = reservations.stream().filter(r -> appliedIds.contains(r.getId())).toList();
+            mongoTemplate.remove(Query.query(Criteria.where("claimId").is(claimId)
+                    .and("reservationId").nin(appliedIds)), PitchSlot.class);
+        }
+
+        for (Reservation reservation : confirmed) {
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation.setUpdatedAt(now);
+        }
+        return confirmed;
+    }
+
+    //---------------------CLAIM--------------------------------------------------------------------------------------
+    public String claim(Reservation reservation) {
+        String claimId = UUID.randomUUID().toString();
+        List<PitchSlot> slots = toSlots(reservation, claimId);
+
+        try {
+            // insertMany ordonné : s'arrête à la première tranche déjà prise
+            mongoTemplate.insert(slots, PitchSlot.class);
+        } catch (DuplicateKeyException e) {
+            releaseClaim(claimId);
+
+            // Une tranche laissée par une confirmation interrompue ne doit pas bloquer le terrain
+            if (sweepOrphans(reservation.getPitchId(), LocalDateTime.now().minus(ORPHAN_GRACE)) > 0) {
+                return claim(reservation);
+            }
+
+            boolean alreadyClaimedBySelf = mongoTemplate.exists(
+                    Query.query(Criteria.where("reservationId").is(reservation.getId())),
+                    PitchSlot.class
+            );
+            throw new RuntimeException(alreadyClaimedBySelf ? "RESERVATION_ALREADY_PROCESSED" : "TIME_SLOT_ALREADY_BOOKED");
+        }
+        return claimId;
+    }
+
+    //---------------------RELEASE------------------------------------------------------------------------------------
+    public void release(String reservationId) {
+        mongoTemplate.remove(Query.query(Criteria.where("reservationId").is(reservationId)), PitchSlot.class);
+    }
+
+    private void releaseClaim(String claimId) {
+        mongoTemplate.remove(Query.query(Criteria.where("claimId").is(claimId)), PitchSlot.class);
+    }
+
+    //---------------------ORPHAN SWEEP-------------------------------------------------------------------------------
+    // Un arrêt entre l'insertion des tranches et le passage à CONFIRMED les laisse sans propriétaire
+    @Scheduled(
+            fixedDelayString = "${app.reservations.slot-sweep.interval-ms:300000}",
+            initialDelayString = "${app.reservations.slot-sweep.interval-ms:300000}"
+    )
+    public void sweepOrphans() {
+        try {
+            int removed = sweepOrphans(null, LocalDateTime.now().minus(ORPHAN_GRACE));
+            if (removed > 0) {
+                log.info("Tranches orphelines supprimées : {}", removed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Nettoyage des tranches orphelines interrompu : {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Supprime les tranches créées avant cutoff dont la réservation n'est pas (ou plus) CONFIRMED.
+     * pitchId restreint le nettoyage à un terrain, null pour tous.
+     */
+    int sweepOrphans(String pitchId, LocalDateTime cutoff) {
+        Query candidates = Query.query(orphanScope(pitchId, cutoff));
+        candidates.fields().include("reservationId");
+        Set<String> reservationIds = mongoTemplate.find(candidates, PitchSlot.class).stream()
+                .map(PitchSlot::getReservationId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+
+        Query confirmed = Query.query(Criteria.where("_id").in(reservationIds)
+                .and("status").is(ReservationStatus.CONFIRMED));
+        confirmed.fields().include("_id");
+        mongoTemplate.find(confirmed, Reservation.class).forEach(r -> reservationIds.remove(r.getId()));
+        if (reservationIds.isEmpty()) {
+            return 0;
+        }
+
+        return (int) mongoTemplate.remove(
+                Query.query(orphanScope(pitchId, cutoff).and("reservationId").in(reservationIds)),
+                PitchSlot.class
+        ).getDeletedCount();
+    }
+
+    private static Criteria orphanScope(String pitchId, LocalDateTime cutoff) {
+        Criteria criteria = Criteria.where("createdAt").lt(cutoff);
+        return pitchId == null ? criteria : criteria.and("pitchId").is(pitchId);
+    }
+
+    //---------------------BACKFILL-----------------------------------------------------------------------------------
+    // Les réservations confirmées avant l'introduction de pitch_slots prennent leurs tranches au démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillConfirmedReservations() {
+        Query query = Query.query(Criteria.where("status").is(ReservationStatus.CONFIRMED)
+                .and("day").gte(LocalDate.now().minusDays(1)));
+        query.fields().include("pitchId", "day", "hour", "duration");
+
+        int claimed = 0;
+        try (Stream<Reservation> reservations = mongoTemplate.stream(query, Reservation.class)) {
+            for (Reservation reservation : (Iterable<Reservation>) reservations::iterator) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PitchSlot.class);
+                bulk.insert(toSlots(reservation, "backfill-" + reservation.getId()));
+                try {
+                    bulk.execute();
+                } catch (BulkOperationException e) {
+                    // Tranches déjà présentes : rien à faire
+                }
+                claimed++;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Reprise des créneaux confirmés interrompue : {}", e.getMessage());
+            return;
+        }
+        log.info("Créneaux vérifiés pour {} réservations confirmées", claimed);
+    }
+
+    private List<PitchSlot> toSlots(Reservation reservation, String claimId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<PitchSlot> slots = new ArrayList<>();
+
+        for (SlotOccupancyService.Segment segment :
+                SlotOccupancyService.segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+            int firstSlot = segment.startMinute() / SLOT_MINUTES;
+            int lastSlot = (segment.endMinute() + SLOT_MINUTES - 1) / SLOT_MINUTES;
+
+            for (int slot = firstSlot; slot < lastSlot; slot++) {
+                slots.add(PitchSlot.builder()
+                        .pitchId(reservation.getPitchId())
+                        .day(segment.day())
+                        .slot(slot)
+                        .reservationId(reservation.getId())
+                        .claimId(claimId)
+                        .createdAt(now)
+                        .expiresAt(segment.day().plusDays(2).atStartOfDay())
+                        .build());
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,196 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.repositories.ReservationRepository;
+import com.app.sportify_backend.utils.DayOccupancy;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Occupation des terrains par (pitch, jour), chargée à la demande depuis les réservations
+ * confirmées puis tenue à jour à chaque confirmation / annulation.
+ * Permet de détecter les chevauchements (ex: 18h00 pendant 90 min bloque 19h00) sans requête Mongo.
+ * C'est un filtre rapide : la prise effective du créneau passe par SlotClaimService.
+ */
+@Service
+public class SlotOccupancyService {
+
+    private static final int DEFAULT_DURATION = 60;
+
+    private final ReservationRepository reservationRepository;
+    private final LoadingCache<DayKey, DayOccupancy> occupancies;
+
+    public SlotOccupancyService(
+            ReservationRepository reservationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.reservations.occupancy-cache.max-size:20000}") long maxSize,
+            @Value("${app.reservations.occupancy-cache.ttl-seconds:30}") long ttlSeconds
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.occupancies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                // Rechargé périodiquement même s'il est lu sans cesse : les écritures faites par un
+                // autre nœud ou par les traitements en masse y apparaissent au plus tard après ttlSeconds
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(new OccupancyLoader());
+
+        CaffeineCacheMetrics.monitor(meterRegistry, occupancies, "reservations.occupancy");
+    }
+
+    public record DayKey(String pitchId, LocalDate day) {}
+
+    public record Segment(LocalDate day, int startMinute, int endMinute) {}
+
+    //---------------------QUERIES------------------------------------------------------------------------------------
+    public boolean isAvailable(String pitchId, LocalDate day, LocalTime hour, Integer duration) {
+        for (Segment segment : segments(day, hour, duration)) {
+            if (!getOccupancy(pitchId, segment.day()).isFree(segment.startMinute(), segment.endMinute())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public DayOccupancy getOccupancy(String pitchId, LocalDate day) {
+        return occupancies.get(new DayKey(pitchId, day));
+    }
+
+    // Les jours absents du cache sont chargés ensemble, en une seule requête
+    public Map<DayKey, DayOccupancy> getOccupancies(Collection<String> pitchIds, LocalDate from, LocalDate to) {
+        List<DayKey> keys = new ArrayList<>();
+        for (String pitchId : pitchIds) {
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                keys.add(new DayKey(pitchId, day));
+            }
+        }
+        return occupancies.getAll(keys);
+    }
+
+    /**
+     * Réservations de la liste qui chevauchent une réservation confirmée. Tous les jours touchés
+     * sont demandés en un seul getAll : les jours absents du cache sont chargés en une requête.
+     */
+    public List<Reservation> findConflicts(Collection<Reservation> reservations) {
+        Set<DayKey> keys = new HashSet<>();
+        for (Reservation reservation : reservations) {
+            for (Segment segment : segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+                keys.add(new DayKey(reservation.getPitchId(), segment.day()));
+            }
+        }
+        Map<DayKey, DayOccupancy> loaded = occupancies.getAll(keys);
+
+        List<Reservation> conflicts = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            for (Segment segment : segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+                DayOccupancy occupancy = loaded.get(new DayKey(reservation.getPitchId(), segment.day()));
+                if (!occupancy.isFree(segment.startMinute(), segment.endMinute())) {
+                    conflicts.add(reservation);
+                    break;
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    //---------------------UPDATES------------------------------------------------------------------------------------
+    // Marque les minutes d'une réservation confirmée dans les jours déjà chargés
+    public void markOccupied(Reservation reservation) {
+        for (Segment segment : segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+            DayOccupancy occupancy = occupancies.getIfPresent(new DayKey(reservation.getPitchId(), segment.day()));
+            if (occupancy != null) {
+                occupancy.occupy(segment.startMinute(), segment.endMinute());
+            }
+        }
+    }
+
+    /**
+     * Libère le créneau d'une réservation confirmée. Les jours concernés sont rechargés
+     * depuis Mongo : d'anciennes réservations qui se chevauchent ne perdent pas leurs minutes.
+     */
+    public void release(Reservation reservation) {
+        for (Segment segment : segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+            occupancies.invalidate(new DayKey(reservation.getPitchId(), segment.day()));
+        }
+    }
+
+    public void evictPitch(String pitchId) {
+        occupancies.asMap().keySet().removeIf(key -> key.pitchId().equals(pitchId));
+    }
+
+    //---------------------LOADING------------------------------------------------------------------------------------
+    private class OccupancyLoader implements CacheLoader<DayKey, DayOccupancy> {
+
+        @Override
+        public DayOccupancy load(DayKey key) {
+            return loadAll(Set.of(key)).get(key);
+        }
+
+        @Override
+        public Map<DayKey, DayOccupancy> loadAll(Set<? extends DayKey> keys) {
+            Map<DayKey, DayOccupancy> loaded = new HashMap<>();
+            Set<String> pitchIds = new HashSet<>();
+            LocalDate from = null;
+            LocalDate to = null;
+
+            for (DayKey key : keys) {
+                loaded.put(key, new DayOccupancy());
+                pitchIds.add(key.pitchId());
+                from = from == null || key.day().isBefore(from) ? key.day() : from;
+                to = to == null || key.day().isAfter(to) ? key.day() : to;
+            }
+
+            // La veille est chargée aussi : un match commencé à 23h peut déborder sur le premier jour
+            List<Reservation> confirmed = reservationRepository.findSlotsByPitchIdInAndStatusAndDayRange(
+                    pitchIds,
+                    ReservationStatus.CONFIRMED,
+                    from.minusDays(1),
+                    to
+            );
+
+            for (Reservation reservation : confirmed) {
+                for (Segment segment : segments(reservation.getDay(), reservation.getHour(), reservation.getDuration())) {
+                    DayOccupancy occupancy = loaded.get(new DayKey(reservation.getPitchId(), segment.day()));
+                    if (occupancy != null) {
+                        occupancy.occupy(segment.startMinute(), segment.endMinute());
+                    }
+                }
+            }
+            return loaded;
+        }
+    }
+
+    // Découpe une réservation en plages par jour (un match peut passer minuit)
+    public static List<Segment> segments(LocalDate day, LocalTime hour, Integer duration) {
+        int remaining = duration != null && duration > 0 ? duration : DEFAULT_DURATION;
+        int start = hour.getHour() * 60 + hour.getMinute();
+
+        List<Segment> segments = new ArrayList<>(2);
+        LocalDate current = day;
+        while (remaining > 0) {
+            int end = Math.min(start + remaining, DayOccupancy.MINUTES_PER_DAY);
+            segments.add(new Segment(current, start, end));
+            remaining -= end - start;
+            start = 0;
+            current = current.plusDays(1);
+        }
+        return segments;
+    }
+}
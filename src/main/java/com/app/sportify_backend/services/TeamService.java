@@ -8,6 +8,7 @@ import com.app.sportify_backend.utils.CodeGenerator;
 import com.app.sportify_backend.repositories.TeamRepository;
 import com.app.sportify_backend.repositories.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -23,6 +24,9 @@ public class TeamService {
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ChangePropagationService changePropagationService;
+    private final OptimisticRetryService optimisticRetryService;
+    private final UserUpdateService userUpdateService;
 
     public Team createTeam(Team team, MultipartFile image) throws IOException {
         team.setIsActivated(false);
@@ -117,6 +121,10 @@ public class TeamService {
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RuntimeException("TEAM_NOT_FOUND"));
 
+        String previousName = team.getName();
+        String previousCity = team.getCity();
+        String previousLogoUrl = team.getLogoUrl();
+
         team.setName(request.getName());
         team.setCity(request.getCity());
 
@@ -134,7 +142,15 @@ public class TeamService {
             }
         }
 
-        return teamRepository.save(team);
+        Team saved = teamRepository.save(team);
+
+        // Réservations, invitations et statistiques gardent une copie du nom, du logo et de la ville
+        if (!Objects.equals(previousName, saved.getName()) ||
+                !Objects.equals(previousCity, saved.getCity()) ||
+                !Objects.equals(previousLogoUrl, saved.getLogoUrl())) {
+            changePropagationService.teamChanged(teamId);
+        }
+        return saved;
     }
 
     public Team activateTeam(String teamId, String userId) {
@@ -149,11 +165,10 @@ public class TeamService {
             throw new RuntimeException("L'utilisateur n'est pas autorisé à activer cette équipe");
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        user.setActiveTeamId(teamId);
-        userRepository.save(user);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        userUpdateService.update(userId, Update.update("activeTeamId", teamId));
 
         return teamToActivate;
     }
@@ -209,12 +224,7 @@ public class TeamService {
             }
         });
 
-        userIds.forEach(userId -> {
-            userRepository.findById(userId).ifPresent(user -> {
-                user.getTeamIds().remove(id);
-                userRepository.save(user);
-            });
-        });
+        userIds.forEach(userId -> userUpdateService.update(userId, new Update().pull("teamIds", id)));
         teamRepository.deleteById(id);
     }
 
@@ -229,6 +239,11 @@ public class TeamService {
     }
 
     public void leaveTeam(String teamId, String userId) {
+        optimisticRetryService.run("team.leave", () -> doLeaveTeam(teamId, userId));
+    }
+
+    // Deux départs simultanés : le second save échoue sur la version et relit la liste des membres
+    private void doLeaveTeam(String teamId, String userId) {
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new RuntimeException("TEAM_NOT_FOUND"));
 
@@ -251,7 +266,7 @@ public class TeamService {
 
         if (teamId.equals(leavingUser.getActiveTeamId())) {
             leavingUser.setActiveTeamId(null);
-            userRepository.save(leavingUser);
+            userUpdateService.update(userId, new Update().unset("activeTeamId"));
         }
 
         // Données supplémentaires pour le front
@@ -0,0 +1,438 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.models.TeamStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Statistiques d'équipe tenues à jour par deltas : chaque changement de score ou de statut
+ * retire l'ancienne contribution du match et ajoute la nouvelle, par $inc sur team_stats.
+ * Sans transaction, les deux équipes sont mises à jour l'une après l'autre ; la réconciliation
+ * périodique corrige un écart éventuel à partir des réservations.
+ */
+@Service
+@Slf4j
+public class TeamStatsService {
+
+    private static final int RECENT_UPDATE_MINUTES = 5;
+    private static final int BACKFILL_BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final Counter corrections;
+
+    public TeamStatsService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.corrections = Counter.builder("team-stats.reconcile.corrections")
+                .description("Statistiques d'équipe corrigées par la réconciliation")
+                .register(meterRegistry);
+    }
+
+    // Apport d'un match aux statistiques d'une équipe
+    record Contribution(int played, int wins, int draws, int losses, int goalsScored, int goalsConceded) {
+
+        static final Contribution NONE = new Contribution(0, 0, 0, 0, 0, 0);
+
+        static Contribution of(int myGoals, int theirGoals) {
+            return new Contribution(1,
+                    myGoals > theirGoals ? 1 : 0,
+                    myGoals == theirGoals ? 1 : 0,
+                    myGoals < theirGoals ? 1 : 0,
+                    myGoals,
+                    theirGoals);
+        }
+
+        Contribution minus(Contribution other) {
+            return new Contribution(
+                    played - other.played,
+                    wins - other.wins,
+                    draws - other.draws,
+                    losses - other.losses,
+                    goalsScored - other.goalsScored,
+                    goalsConceded - other.goalsConceded);
+        }
+
+        boolean isZero() {
+            return equals(NONE);
+        }
+    }
+
+    //---------------------DELTAS-------------------------------------------------------------------------------------
+    /**
+     * Répercute le passage d'une réservation de (oldStatus, oldScore) à son état courant.
+     * Seuls les matchs COMPLETED avec un score complet comptent.
+     */
+    public void applyChange(Reservation reservation, ReservationStatus oldStatus, Reservation.Score oldScore) {
+        for (boolean home : new boolean[]{true, false}) {
+            String teamId = home ? reservation.getSenderTeamId() : reservation.getAdverseTeamId();
+            Contribution delta = contribution(reservation.getStatus(), reservation.getScore(), home)
+                    .minus(contribution(oldStatus, oldScore, home));
+
+            if (teamId != null && !delta.isZero()) {
+                increment(teamId, delta);
+            }
+        }
+    }
+
+    static Contribution contribution(ReservationStatus status, Reservation.Score score, boolean home) {
+        if (status != ReservationStatus.COMPLETED || score == null || score.getHome() == null || score.getAway() == null) {
+            return Contribution.NONE;
+        }
+        return home
+                ? Contribution.of(score.getHome(), score.getAway())
+                : Contribution.of(score.getAway(), score.getHome());
+    }
+
+    private void increment(String teamId, Contribution delta) {
+        Update update = new Update()
+                .inc("played", delta.played())
+                .inc("wins", delta.wins())
+                .inc("draws", delta.draws())
+                .inc("losses", delta.losses())
+                .inc("goalsScored", delta.goalsScored())
+                .inc("goalsConceded", delta.goalsConceded())
+                .inc("goalDifference", delta.goalsScored() - delta.goalsConceded())
+                .inc("points", points(delta.wins(), delta.draws()))
+                .set("updatedAt", LocalDateTime.now());
+
+        TeamStats stats;
+        try {
+            stats = incrementAndGet(teamId, update);
+        } catch (DuplicateKeyException e) {
+            // Deux upserts simultanés pour une équipe sans statistiques : le second repasse en update
+            stats = incrementAndGet(teamId, update);
+        }
+
+        refreshWinRate(stats);
+
+        if (stats.getCity() == null) {
+            Team team = findTeamCity(teamId);
+            if (team != null && team.getCity() != null) {
+                updateCity(teamId, team.getCity());
+            }
+        }
+    }
+
+    private TeamStats incrementAndGet(String teamId, Update update) {
+        return mongoTemplate.findAndModify(
+                Query.query(Criteria.where("teamId").is(teamId)),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                TeamStats.class
+        );
+    }
+
+    /**
+     * winRate n'est pas additif : il est recalculé à partir des compteurs observés après le $inc,
+     * seulement s'ils n'ont pas bougé depuis. Sinon la mise à jour concurrente s'en charge.
+     */
+    private void refreshWinRate(TeamStats stats) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(stats.getId())
+                        .and("played").is(stats.getPlayed())
+                        .and("wins").is(stats.getWins())),
+                new Update().set("winRate", winRate(stats.getWins(), stats.getPlayed())),
+                TeamStats.class
+        );
+    }
+
+    private static double winRate(int wins, int played) {
+        return played == 0 ? 0.0 : (double) wins / played * 100;
+    }
+
+    private static int points(int wins, int draws) {
+        return 3 * wins + draws;
+    }
+
+    //---------------------CITY---------------------------------------------------------------------------------------
+    public void updateCity(String teamId, String city) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("teamId").is(teamId)),
+                new Update().set("city", city),
+                TeamStats.class
+        );
+    }
+
+    private Team findTeamCity(String teamId) {
+        Query query = Query.query(Criteria.where("_id").is(teamId));
+        query.fields().include("city");
+        return mongoTemplate.findOne(query, Team.class);
+    }
+
+    //---------------------BACKFILL-----------------------------------------------------------------------------------
+    // Statistiques créées avant l'ajout des points ou de la ville : complétées par lots au démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        backfillPoints();
+        backfillCities();
+    }
+
+    // Sans points, le premier $inc partirait de zéro et le classement par points serait faux
+    private void backfillPoints() {
+        Query missing = Query.query(Criteria.where("points").exists(false));
+        missing.fields().include("wins", "draws");
+
+        int updated = 0;
+        List<TeamStats> batch = new ArrayList<>();
+        try (Stream<TeamStats> stats = mongoTemplate.stream(missing, TeamStats.class)) {
+            for (TeamStats stat : (Iterable<TeamStats>) stats::iterator) {
+                batch.add(stat);
+                if (batch.size() == BACKFILL_BATCH) {
+                    updated += computePoints(batch);
+                    batch.clear();
+                }
+            }
+            updated += computePoints(batch);
+        } catch (DataAccessException e) {
+            log.warn("Reprise des points des statistiques interrompue : {}", e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            log.info("Points calculés pour {} statistiques d'équipe", updated);
+        }
+    }
+
+    // Conditionné sur les compteurs lus : une mise à jour concurrente est laissée à la réconciliation
+    private int computePoints(List<TeamStats> stats) {
+        if (stats.isEmpty()) {
+            return 0;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TeamStats.class);
+        for (TeamStats stat : stats) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(stat.getId())
+                            .and("points").exists(false)
+                            .and("wins").is(stat.getWins())
+                            .and("draws").is(stat.getDraws())),
+                    new Update().set("points", points(stat.getWins(), stat.getDraws()))
+            );
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    private void backfillCities() {
+        Query missing = Query.query(Criteria.where("city").exists(false));
+        missing.fields().include("teamId");
+
+        int updated = 0;
+        List<String> teamIds = new ArrayList<>();
+        try (Stream<TeamStats> stats = mongoTemplate.stream(missing, TeamStats.class)) {
+            for (TeamStats stat : (Iterable<TeamStats>) stats::iterator) {
+                teamIds.add(stat.getTeamId());
+                if (teamIds.size() == BACKFILL_BATCH) {
+                    updated += copyCities(teamIds);
+                    teamIds.clear();
+                }
+            }
+            updated += copyCities(teamIds);
+        } catch (DataAccessException e) {
+            log.warn("Reprise des villes des statistiques interrompue : {}", e.getMessage());
+            return;
+        }
+        if (updated > 0) {
+            log.info("Ville renseignée pour {} statistiques d'équipe", updated);
+        }
+    }
+
+    private int copyCities(List<String> teamIds) {
+        if (teamIds.isEmpty()) {
+            return 0;
+        }
+        Query teamsQuery = Query.query(Criteria.where("_id").in(teamIds).and("city").ne(null));
+        teamsQuery.fields().include("city");
+        List<Team> teams = mongoTemplate.find(teamsQuery, Team.class);
+        if (teams.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TeamStats.class);
+        for (Team team : teams) {
+            bulk.updateOne(Query.query(Criteria.where("teamId").is(team.getId())), new Update().set("city", team.getCity()));
+        }
+        return bulk.execute().getModifiedCount();
+    }
+
+    //---------------------RECONCILIATION-----------------------------------------------------------------------------
+    /**
+     * Compare team_stats au recalcul complet depuis les réservations (fusion de deux curseurs
+     * triés par teamId) et corrige les écarts. Les équipes modifiées très récemment sont
+     * laissées au passage suivant : un delta peut être en cours d'application.
+     */
+    @Scheduled(cron = "${app.team-stats.reconcile-cron:0 30 4 * * *}")
+    public int reconcile() {
+        LocalDateTime recentLimit = LocalDateTime.now().minusMinutes(RECENT_UPDATE_MINUTES);
+        int corrected = 0;
+
+        Query storedQuery = new Query().with(Sort.by("teamId"));
+        try (Stream<Document> expected = mongoTemplate.aggregateStream(
+                totalsAggregation(), mongoTemplate.getCollectionName(Reservation.class), Document.class);
+             Stream<TeamStats> stored = mongoTemplate.stream(storedQuery, TeamStats.class)) {
+
+            Iterator<Document> expectedIt = expected.iterator();
+            Iterator<TeamStats> storedIt = stored.iterator();
+            Document nextExpected = expectedIt.hasNext() ? expectedIt.next() : null;
+            TeamStats nextStored = storedIt.hasNext() ? storedIt.next() : null;
+
+            while (nextExpected != null || nextStored != null) {
+                int order = nextExpected == null ? 1
+                        : nextStored == null ? -1
+                        : nextExpected.getString("_id").compareTo(nextStored.getTeamId());
+
+                TeamStats target = order <= 0 ? toStats(nextExpected) : emptyStats(nextStored.getTeamId());
+                TeamStats current = order >= 0 ? nextStored : null;
+
+                if (!sameCounters(target, current)
+                        && (current == null || current.getUpdatedAt() == null || current.getUpdatedAt().isBefore(recentLimit))
+                        && overwrite(target, current)) {
+                    corrected++;
+                }
+
+                if (order <= 0) {
+                    nextExpected = expectedIt.hasNext() ? expectedIt.next() : null;
+                }
+                if (order >= 0) {
+                    nextStored = storedIt.hasNext() ? storedIt.next() : null;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Réconciliation des statistiques d'équipe interrompue : {}", e.getMessage());
+            return corrected;
+        }
+
+        if (corrected > 0) {
+            log.warn("Statistiques corrigées pour {} équipes", corrected);
+        }
+        corrections.increment(corrected);
+        return corrected;
+    }
+
+    // Écrit les valeurs attendues si le document n'a pas changé depuis sa lecture
+    private boolean overwrite(TeamStats target, TeamStats current) {
+        Update update = new Update()
+                .set("played", target.getPlayed())
+                .set("wins", target.getWins())
+                .set("draws", target.getDraws())
+                .set("losses", target.getLosses())
+                .set("goalsScored", target.getGoalsScored())
+                .set("goalsConceded", target.getGoalsConceded())
+                .set("goalDifference", target.getGoalDifference())
+                .set("winRate", target.getWinRate())
+                .set("points", target.getPoints())
+                .set("updatedAt", LocalDateTime.now());
+
+        if (current == null) {
+            try {
+                mongoTemplate.upsert(Query.query(Criteria.where("teamId").is(target.getTeamId())), update, TeamStats.class);
+                return true;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+
+        Criteria unchanged = Criteria.where("_id").is(current.getId());
+        unchanged = current.getUpdatedAt() != null
+                ? unchanged.and("updatedAt").is(current.getUpdatedAt())
+                : unchanged.and("updatedAt").exists(false);
+        return mongoTemplate.updateFirst(Query.query(unchanged), update, TeamStats.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Totaux par équipe sur les matchs COMPLETED notés. Chaque réservation est dédoublée
+     * en (équipe, buts marqués, buts encaissés) pour l'équipe qui reçoit et pour l'adversaire.
+     */
+    static Aggregation totalsAggregation() {
+        Criteria completed = Criteria.where("status").is(ReservationStatus.COMPLETED.name())
+                .and("score.home").ne(null)
+                .and("score.away").ne(null);
+
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(completed));
+        operations.add(context -> new Document("$project", new Document("sides", List.of(
+                new Document("teamId", "$senderTeamId").append("gf", "$score.home").append("ga", "$score.away"),
+                new Document("teamId", "$adverseTeamId").append("gf", "$score.away").append("ga", "$score.home")
+        ))));
+        operations.add(context -> new Document("$unwind", "$sides"));
+        operations.add(context -> new Document("$group", new Document("_id", "$sides.teamId")
+                .append("played", new Document("$sum", 1))
+                .append("wins", sumIf("$gt"))
+                .append("draws", sumIf("$eq"))
+                .append("losses", sumIf("$lt"))
+                .append("goalsScored", new Document("$sum", "$sides.gf"))
+                .append("goalsConceded", new Document("$sum", "$sides.ga"))));
+        operations.add(context -> new Document("$sort", new Document("_id", 1)));
+
+        return Aggregation.newAggregation(operations);
+    }
+
+    private static Document sumIf(String comparison) {
+        return new Document("$sum", new Document("$cond", List.of(
+                new Document(comparison, List.of("$sides.gf", "$sides.ga")), 1, 0)));
+    }
+
+    private static TeamStats toStats(Document totals) {
+        int played = intValue(totals, "played");
+        int wins = intValue(totals, "wins");
+        int goalsScored = intValue(totals, "goalsScored");
+        int goalsConceded = intValue(totals, "goalsConceded");
+        return TeamStats.builder()
+                .teamId(totals.getString("_id"))
+                .played(played)
+                .wins(wins)
+                .draws(intValue(totals, "draws"))
+                .losses(intValue(totals, "losses"))
+                .goalsScored(goalsScored)
+                .goalsConceded(goalsConceded)
+                .goalDifference(goalsScored - goalsConceded)
+                .winRate(winRate(wins, played))
+                .points(points(wins, intValue(totals, "draws")))
+                .build();
+    }
+
+    private static int intValue(Document document, String key) {
+        return ((Number) document.get(key)).intValue();
+    }
+
+    private static TeamStats emptyStats(String teamId) {
+        return TeamStats.builder().teamId(teamId).build();
+    }
+
+    private static boolean sameCounters(TeamStats expected, TeamStats current) {
+        if (current == null) {
+            return expected.getPlayed() == 0;
+        }
+        return expected.getPlayed() == current.getPlayed()
+                && expected.getWins() == current.getWins()
+                && expected.getDraws() == current.getDraws()
+                && expected.getLosses() == current.getLosses()
+                && expected.getGoalsScored() == current.getGoalsScored()
+                && expected.getGoalsConceded() == current.getGoalsConceded()
+                && expected.getGoalDifference() == current.getGoalDifference()
+                && Double.compare(expected.getWinRate(), current.getWinRate()) == 0
+                && expected.getPoints() == current.getPoints();
+    }
+}
@@ -0,0 +1,44 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.security.TokenVersionService;
+import com.app.sportify_backend.security.UserDetailsServiceImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Écritures ciblées sur un utilisateur existant. Un save complet réécrirait tokenVersion
+ * depuis une lecture parfois antérieure à une révocation, ce qui réactiverait les anciens
+ * tokens : seuls les champs modifiés sont envoyés, tokenVersion ne change que par $inc.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserUpdateService {
+
+    private final MongoTemplate mongoTemplate;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionService tokenVersionService;
+
+    public void update(String userId, Update update) {
+        update(userId, null, update);
+    }
+
+    /**
+     * Variante conditionnelle : condition est ajoutée au filtre sur l'id (compare-and-set).
+     * Retourne false si aucun document ne correspondait.
+     */
+    public boolean update(String userId, Criteria condition, Update update) {
+        Criteria criteria = Criteria.where("_id").is(userId);
+        Query query = Query.query(condition != null ? new Criteria().andOperator(criteria, condition) : criteria);
+        long matched = mongoTemplate.updateFirst(query, update, User.class).getMatchedCount();
+
+        // Pas d'AfterSaveEvent pour un updateFirst : mêmes évictions que UserCacheInvalidationListener
+        userDetailsService.evictUser(userId);
+        tokenVersionService.evict(userId);
+        return matched > 0;
+    }
+}
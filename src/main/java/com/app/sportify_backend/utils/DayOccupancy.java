@@ -0,0 +1,66 @@
+package com.app.sportify_backend.utils;
+
+import java.util.BitSet;
+
+/**
+ * Occupation d'un terrain sur une journée, à la minute près (1440 bits).
+ * Une plage [start, end[ est libre si aucun bit n'est positionné entre start et end.
+ */
+public class DayOccupancy {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final BitSet minutes = new BitSet(MINUTES_PER_DAY);
+
+    public synchronized boolean isFree(int startMinute, int endMinute) {
+        checkRange(startMinute, endMinute);
+        int next = minutes.nextSetBit(startMinute);
+        return next == -1 || next >= endMinute;
+    }
+
+    public synchronized void occupy(int startMinute, int endMinute) {
+        checkRange(startMinute, endMinute);
+        minutes.set(startMinute, endMinute);
+    }
+
+    // Vérifie et réserve en une seule opération
+    public synchronized boolean tryOccupy(int startMinute, int endMinute) {
+        if (!isFree(startMinute, endMinute)) {
+            return false;
+        }
+        minutes.set(startMinute, endMinute);
+        return true;
+    }
+
+    public synchronized void release(int startMinute, int endMinute) {
+        checkRange(startMinute, endMinute);
+        minutes.clear(startMinute, endMinute);
+    }
+
+    /**
+     * Résumé compact des créneaux d'une journée : un caractère par créneau à partir de la
+     * première minute d'ouverture, '1' si le créneau est ouvert et entièrement libre, '0' sinon.
+     */
+    public synchronized String toSlotString(DayTemplate template, int slotMinutes) {
+        if (template.isClosed()) {
+            return "";
+        }
+        int close = template.lastOpenMinute();
+        StringBuilder slots = new StringBuilder();
+        for (int start = template.firstOpenMinute(); start + slotMinutes <= close; start += slotMinutes) {
+            int end = start + slotMinutes;
+            slots.append(template.isOpen(start, end) && isFree(start, end) ? '1' : '0');
+        }
+        return slots.toString();
+    }
+
+    public synchronized int occupiedMinutes() {
+        return minutes.cardinality();
+    }
+
+    private static void checkRange(int startMinute, int endMinute) {
+        if (startMinute < 0 || endMinute > MINUTES_PER_DAY || startMinute > endMinute) {
+            throw new IllegalArgumentException("Plage horaire invalide: " + startMinute + "-" + endMinute);
+        }
+    }
+}
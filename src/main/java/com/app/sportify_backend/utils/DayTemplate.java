@@ -0,0 +1,53 @@
+package com.app.sportify_backend.utils;
+
+import java.util.BitSet;
+
+/**
+ * Minutes d'ouverture d'un terrain pour un jour type (1440 bits), compilées une fois
+ * à partir des horaires puis réutilisées pour chaque date tombant ce jour de semaine.
+ * Immuable après construction.
+ */
+public class DayTemplate {
+
+    public static final DayTemplate CLOSED = new DayTemplate(new BitSet(DayOccupancy.MINUTES_PER_DAY));
+
+    private final BitSet openMinutes;
+
+    private DayTemplate(BitSet openMinutes) {
+        this.openMinutes = openMinutes;
+    }
+
+    // intervals : paires [ouverture, fermeture[ en minutes depuis minuit
+    public static DayTemplate of(int[]... intervals) {
+        BitSet openMinutes = new BitSet(DayOccupancy.MINUTES_PER_DAY);
+        for (int[] interval : intervals) {
+            int open = Math.max(interval[0], 0);
+            int close = Math.min(interval[1], DayOccupancy.MINUTES_PER_DAY);
+            if (open < close) {
+                openMinutes.set(open, close);
+            }
+        }
+        return openMinutes.isEmpty() ? CLOSED : new DayTemplate(openMinutes);
+    }
+
+    public boolean isOpen(int startMinute, int endMinute) {
+        return startMinute >= endMinute || openMinutes.nextClearBit(startMinute) >= endMinute;
+    }
+
+    public boolean isClosed() {
+        return openMinutes.isEmpty();
+    }
+
+    public int firstOpenMinute() {
+        return openMinutes.nextSetBit(0);
+    }
+
+    // Exclusif : minute qui suit la dernière minute d'ouverture
+    public int lastOpenMinute() {
+        return openMinutes.length();
+    }
+
+    public int openMinutes() {
+        return openMinutes.cardinality();
+    }
+}
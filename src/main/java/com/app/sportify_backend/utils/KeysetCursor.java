@@ -0,0 +1,32 @@
+package com.app.sportify_backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+/**
+ * Curseur opaque de pagination par clé : les valeurs de tri du dernier élément
+ * renvoyé, encodées en base64url.
+ */
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    public static String encode(String... values) {
+        String joined = String.join(SEPARATOR, values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String joined = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = joined.split(Pattern.quote(SEPARATOR), -1);
+            if (values.length != expectedParts) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            return values;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.models.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le chemin historique du filtre (extractEmail + isTokenValid, deux vérifications HMAC)
+ * avec la lecture depuis VerifiedTokenCache.
+ * Lancement : exécuter main() depuis l'IDE ou avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private JwtService jwtService;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry(), 10_000);
+
+        User user = new User();
+        user.setEmail("player@sportify.tn");
+        token = jwtService.generateToken(user);
+        cache.verify(token);
+    }
+
+    @Benchmark
+    public boolean parseTwice() {
+        String email = jwtService.extractEmail(token);
+        return email != null && jwtService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public String cachedLookup() {
+        return cache.verify(token).getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
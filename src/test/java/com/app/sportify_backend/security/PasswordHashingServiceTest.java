@@ -0,0 +1,85 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void encodesAndMatchesOnThePool() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(4), meterRegistry, 2, 8, 5000);
+
+        String hash = service.encode("motdepasse");
+
+        assertTrue(service.matches("motdepasse", hash));
+        assertFalse(service.matches("autre", hash));
+        assertEquals(2, meterRegistry.get("security.password-hash.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        service = new PasswordHashingService(blocking, meterRegistry, 1, 1, 5000);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> service.matches("a", "hash"));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> service.matches("b", "hash"));
+        while (meterRegistry.get("security.password-hash.queue").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> service.matches("c", "hash"));
+        assertEquals(1.0, meterRegistry.get("security.password-hash.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void weakerHashesNeedRehash() {
+        service = new PasswordHashingService(new BCryptPasswordEncoder(6), meterRegistry, 1, 1, 5000);
+
+        assertTrue(service.needsRehash(new BCryptPasswordEncoder(4).encode("motdepasse")));
+        assertFalse(service.needsRehash(new BCryptPasswordEncoder(6).encode("motdepasse")));
+    }
+}
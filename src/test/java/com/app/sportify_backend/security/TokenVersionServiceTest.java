@@ -0,0 +1,31 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.repositories.RefreshTokenRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenVersionServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersionService service = new TokenVersionService(
+            userRepository, mock(RefreshTokenRepository.class), mock(MongoTemplate.class), 60, 100);
+
+    @Test
+    void deletedUserIsRefusedWithoutRereadingMongo() {
+        when(userRepository.findTokenVersionById("deleted")).thenReturn(Optional.empty());
+
+        assertFalse(service.isCurrent("deleted", 0));
+        assertFalse(service.isCurrent("deleted", 0));
+
+        verify(userRepository, times(1)).findTokenVersionById("deleted");
+    }
+}
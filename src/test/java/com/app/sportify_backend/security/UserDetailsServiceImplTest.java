@@ -0,0 +1,39 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserDetailsServiceImpl service =
+            new UserDetailsServiceImpl(userRepository, new SimpleMeterRegistry(), 100, 300);
+
+    @Test
+    void evictionByIdOnlyDropsThatUser() {
+        when(userRepository.findPrincipalByEmail("a@sportify.tn"))
+                .thenReturn(Optional.of(AuthPrincipal.builder().id("a").email("a@sportify.tn").build()));
+        when(userRepository.findPrincipalByEmail("b@sportify.tn"))
+                .thenReturn(Optional.of(AuthPrincipal.builder().id("b").email("b@sportify.tn").build()));
+
+        service.loadPrincipal("a@sportify.tn");
+        service.loadPrincipal("b@sportify.tn");
+
+        service.evictUser("a");
+        service.evictUser("unknown");
+
+        service.loadPrincipal("a@sportify.tn");
+        service.loadPrincipal("b@sportify.tn");
+
+        verify(userRepository, times(2)).findPrincipalByEmail("a@sportify.tn");
+        verify(userRepository, times(1)).findPrincipalByEmail("b@sportify.tn");
+    }
+}
@@ -0,0 +1,55 @@
+package com.app.sportify_backend.security;
+
+import com.app.sportify_backend.models.User;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VerifiedTokenCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService();
+        cache = new VerifiedTokenCache(jwtService, meterRegistry, 100);
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        User user = new User();
+        user.setEmail("player@sportify.tn");
+        String token = jwtService.generateToken(user);
+
+        assertEquals("player@sportify.tn", cache.verify(token).getSubject());
+        assertEquals("player@sportify.tn", cache.verify(token).getSubject());
+
+        assertEquals(1.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        User user = new User();
+        user.setEmail("player@sportify.tn");
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> cache.verify(tampered));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "jwt.verified-tokens")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
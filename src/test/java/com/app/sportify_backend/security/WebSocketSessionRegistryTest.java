@@ -0,0 +1,44 @@
+package com.app.sportify_backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebSocketSessionRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketSessionRegistry registry = new WebSocketSessionRegistry(meterRegistry);
+
+    @Test
+    void userStaysOnlineUntilLastSessionCloses() {
+        registry.register("user-1", "s1");
+        registry.register("user-1", "s2");
+        registry.register("user-2", "s3");
+
+        assertEquals(Set.of("s1", "s2"), registry.getSessions("user-1"));
+        assertEquals(2, registry.getConnectedUserCount());
+        assertEquals(3.0, meterRegistry.get("websocket.sessions").gauge().value());
+
+        registry.unregister("s1");
+        assertTrue(registry.isOnline("user-1"));
+
+        registry.unregister("s2");
+        assertFalse(registry.isOnline("user-1"));
+        assertEquals(Set.of(), registry.getSessions("user-1"));
+        assertEquals(1.0, meterRegistry.get("websocket.connected-users").gauge().value());
+    }
+
+    @Test
+    void unknownSessionIsIgnored() {
+        registry.unregister("inconnue");
+        registry.unregister(null);
+
+        assertEquals(0, registry.getSessionCount());
+        assertFalse(registry.isOnline(null));
+    }
+}
@@ -0,0 +1,132 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Propagation des champs dénormalisés sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class ChangePropagationServiceTest extends MongoIntegrationTest {
+
+    private static SimpleMeterRegistry meterRegistry;
+    private static ChangePropagationService propagationService;
+
+    @BeforeAll
+    static void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Lots de 3 : plusieurs passes sur les 7 réservations
+        propagationService = new ChangePropagationService(mongoTemplate, new OutboxService(mongoTemplate), meterRegistry, 3);
+    }
+
+    @Test
+    void teamRenameReachesEveryCopyInBatches() {
+        Team team = mongoTemplate.insert(Team.builder().name("Old FC").city("Tunis").logoUrl("/old.png").build());
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reservations.add(reservation(team.getId(), "other", "Old FC"));
+        }
+        reservations.add(reservation("other", team.getId(), "Other FC"));
+        reservations.add(reservation("other", "another", "Other FC"));
+        mongoTemplate.insert(reservations, Reservation.class);
+        mongoTemplate.insert(Invitation.builder()
+                .teamId(team.getId()).teamName("Old FC").teamLogoUrl("/old.png").build());
+        mongoTemplate.insert(TeamStats.builder().teamId(team.getId()).city("Tunis").build());
+
+        team.setName("New FC");
+        team.setCity("Sousse");
+        team.setLogoUrl("/new.png");
+        mongoTemplate.save(team);
+
+        propagationService.propagateTeam(team.getId());
+
+        assertEquals(5, mongoTemplate.count(Query.query(Criteria.where("senderTeamId").is(team.getId())
+                .and("senderTeamName").is("New FC").and("senderTeamLogoUrl").is("/new.png")), Reservation.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("adverseTeamId").is(team.getId())
+                .and("adverseTeamName").is("New FC")), Reservation.class));
+        // Les réservations des autres équipes ne sont pas touchées
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("senderTeamId").is("other")
+                .and("adverseTeamId").is("another").and("senderTeamName").is("Other FC")), Reservation.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("teamId").is(team.getId())
+                .and("teamName").is("New FC")), Invitation.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("teamId").is(team.getId())
+                .and("city").is("Sousse")), TeamStats.class));
+        assertEquals(8.0, meterRegistry.get("propagation.documents").counter().count());
+
+        // Tout est à jour : une seconde passe n'écrit rien
+        propagationService.propagateTeam(team.getId());
+        assertEquals(8.0, meterRegistry.get("propagation.documents").counter().count());
+    }
+
+    @Test
+    void profileChangeUpdatesOnlyThatMember() {
+        User user = new User();
+        user.setFirstname("Sami");
+        user.setLastname("Ben Ali");
+        user = mongoTemplate.insert(user);
+
+        List<Team.TeamMember> members = new ArrayList<>();
+        members.add(Team.TeamMember.builder().userId("someone").userFirstName("Ali").userLastName("Trabelsi").build());
+        members.add(Team.TeamMember.builder().userId(user.getId()).userFirstName("Samy").userLastName("B.").build());
+        Team team = mongoTemplate.insert(Team.builder().name("FC").members(members).build());
+
+        propagationService.propagateUser(user.getId());
+
+        Team updated = mongoTemplate.findById(team.getId(), Team.class);
+        assertEquals("Ali", updated.getMembers().get(0).getUserFirstName());
+        assertEquals("Sami", updated.getMembers().get(1).getUserFirstName());
+        assertEquals("Ben Ali", updated.getMembers().get(1).getUserLastName());
+    }
+
+    @Test
+    void pitchChangeIsStoredThenAppliedByTheDispatcher() {
+        Pitch pitch = new Pitch();
+        pitch.setName("Five Lac");
+        pitch = mongoTemplate.insert(pitch);
+        mongoTemplate.insert(Reservation.builder().pitchId(pitch.getId()).pitchName("Five Lac").build());
+
+        pitch.setName("Five Lac 2");
+        mongoTemplate.save(pitch);
+        propagationService.pitchChanged(pitch.getId());
+
+        // Rien n'est recopié tant que l'événement n'est pas exécuté : un redémarrage ici ne le perd pas
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("aggregateId").is(pitch.getId())
+                .and("type").is(OutboxEventType.PITCH_CHANGED).and("status").is(OutboxStatus.PENDING)), OutboxEvent.class));
+
+        OutboxDispatcher dispatcher = new OutboxDispatcher(mongoTemplate, mock(NotificationService.class),
+                propagationService, new SimpleMeterRegistry(), 100, 1, 3, 60);
+        dispatcher.dispatchBatch(LocalDateTime.now().plusSeconds(1));
+
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("pitchId").is(pitch.getId())
+                .and("pitchName").is("Five Lac 2")), Reservation.class));
+        assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("aggregateId").is(pitch.getId())
+                .and("status").is(OutboxStatus.DISPATCHED)), OutboxEvent.class));
+    }
+
+    private static Reservation reservation(String senderTeamId, String adverseTeamId, String senderTeamName) {
+        return Reservation.builder()
+                .pitchId("pitch")
+                .day(LocalDate.of(2026, 3, 2))
+                .hour(LocalTime.of(18, 0))
+                .senderTeamId(senderTeamId)
+                .senderTeamName(senderTeamName)
+                .senderTeamLogoUrl("/old.png")
+                .adverseTeamId(adverseTeamId)
+                .adverseTeamName("Old FC")
+                .status(ReservationStatus.PENDING)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Invitation;
+import com.app.sportify_backend.models.InvitationStatus;
+import com.app.sportify_backend.models.InvitationType;
+import com.app.sportify_backend.repositories.InvitationRepository;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class InvitationServiceTest {
+
+    private final TeamRepository teamRepository = mock(TeamRepository.class);
+    private final InvitationRepository invitationRepository = mock(InvitationRepository.class);
+    private final OutboxService outboxService = mock(OutboxService.class);
+
+    private final InvitationService service = new InvitationService(
+            mock(UserRepository.class),
+            teamRepository,
+            invitationRepository,
+            outboxService,
+            new OptimisticRetryService(new SimpleMeterRegistry(), 3, 0),
+            mock(UserUpdateService.class)
+    );
+
+    @Test
+    void invitationGoesBackToPendingWhenTheMemberCannotBeAdded() {
+        Invitation invitation = Invitation.builder()
+                .id("invitation-1")
+                .type(InvitationType.PLAYER_INVITATION)
+                .status(InvitationStatus.PENDING)
+                .teamId("deleted-team")
+                .senderId("captain")
+                .receiverId("player")
+                .build();
+        when(invitationRepository.findById("invitation-1")).thenReturn(Optional.of(invitation));
+
+        List<InvitationStatus> saved = new ArrayList<>();
+        when(invitationRepository.save(any(Invitation.class))).thenAnswer(call -> {
+            Invitation written = call.getArgument(0);
+            saved.add(written.getStatus());
+            return written;
+        });
+        when(teamRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.acceptInvitation("invitation-1", "player"));
+
+        assertEquals("TEAM_NOT_FOUND", e.getMessage());
+        assertEquals(List.of(InvitationStatus.ACCEPTED, InvitationStatus.PENDING), saved);
+        verifyNoInteractions(outboxService);
+    }
+}
@@ -0,0 +1,90 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.CursorPage;
+import com.app.sportify_backend.dto.LeaderboardEntryResponse;
+import com.app.sportify_backend.dto.TeamRankResponse;
+import com.app.sportify_backend.models.TeamStats;
+import com.app.sportify_backend.repositories.TeamRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Classements paginés et rangs sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class LeaderboardServiceTest extends MongoIntegrationTest {
+
+    private static final int TEAMS = 60;
+
+    private static LeaderboardService leaderboardService;
+    private static final List<TeamStats> STATS = new ArrayList<>();
+
+    @BeforeAll
+    static void setUp() {
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        when(teamRepository.findAllById(any())).thenReturn(List.of());
+        leaderboardService = new LeaderboardService(mongoTemplate, teamRepository);
+
+        // Peu de valeurs distinctes : beaucoup d'égalités départagées par teamId
+        Random random = new Random(42);
+        for (int i = 0; i < TEAMS; i++) {
+            int wins = random.nextInt(5);
+            int draws = random.nextInt(3);
+            STATS.add(mongoTemplate.insert(TeamStats.builder()
+                    .teamId(String.format("team-%03d", random.nextInt(1000)) + "-" + i)
+                    .city(i % 3 == 0 ? "Tunis" : "Sfax")
+                    .played(wins + draws)
+                    .wins(wins)
+                    .draws(draws)
+                    .points(3 * wins + draws)
+                    .build()));
+        }
+    }
+
+    @Test
+    void cityLeaderboardPagesFollowPointsThenTeamId() {
+        List<TeamStats> expected = STATS.stream()
+                .filter(s -> "Tunis".equals(s.getCity()))
+                .sorted(Comparator.comparingInt(TeamStats::getPoints).reversed()
+                        .thenComparing(TeamStats::getTeamId))
+                .toList();
+
+        List<LeaderboardEntryResponse> entries = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<LeaderboardEntryResponse> page = leaderboardService.getLeaderboard("Tunis", "points", cursor, 7);
+            entries.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected.size(), entries.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getTeamId(), entries.get(i).getTeamId());
+            assertEquals(i + 1, entries.get(i).getRank());
+        }
+    }
+
+    @Test
+    void teamRankMatchesGlobalAndCityOrder() {
+        Comparator<TeamStats> byWins = Comparator.comparingInt(TeamStats::getWins).reversed()
+                .thenComparing(TeamStats::getTeamId);
+        List<TeamStats> global = STATS.stream().sorted(byWins).toList();
+
+        TeamStats team = global.get(TEAMS / 2);
+        List<TeamStats> city = global.stream().filter(s -> s.getCity().equals(team.getCity())).toList();
+
+        TeamRankResponse rank = leaderboardService.getTeamRank(team.getTeamId(), "WINS");
+
+        assertEquals(global.indexOf(team) + 1, rank.getGlobalRank());
+        assertEquals(city.indexOf(team) + 1, rank.getCityRank());
+    }
+}
@@ -0,0 +1,82 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.ManagerStatsResponse;
+import com.app.sportify_backend.models.Pitch;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.StatsGranularity;
+import com.app.sportify_backend.repositories.PitchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statistiques gérant lues dans les rollups journaliers, sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class ManagerStatsServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    void weeksAggregateBookingsOccupancyAndRevenue() {
+        // Horaires par défaut : 8h-22h, soit 840 minutes par jour
+        Pitch pitch = new Pitch();
+        pitch.setId("pitch-" + UUID.randomUUID());
+        pitch.setCreatedBy("manager");
+        PitchRepository pitchRepository = mock(PitchRepository.class);
+        when(pitchRepository.findById(pitch.getId())).thenReturn(Optional.of(pitch));
+
+        insert(pitch.getId(), MONDAY, 90, 60.0, ReservationStatus.CONFIRMED);
+        insert(pitch.getId(), MONDAY.plusDays(2), 60, 40.0, ReservationStatus.COMPLETED);
+        insert(pitch.getId(), MONDAY.plusDays(3), 60, 40.0, ReservationStatus.PENDING);
+        insert(pitch.getId(), MONDAY.plusDays(8), null, null, ReservationStatus.CONFIRMED);
+        insert("other-pitch", MONDAY, 60, 40.0, ReservationStatus.CONFIRMED);
+
+        // Collection vide : reprise complète depuis les réservations
+        PitchRollupService pitchRollupService = new PitchRollupService(mongoTemplate, new SimpleMeterRegistry(), 30, 90);
+        pitchRollupService.backfillIfEmpty();
+
+        ManagerStatsService service = new ManagerStatsService(
+                pitchRepository, new PitchScheduleService(100), pitchRollupService);
+
+        ManagerStatsResponse stats = service.getStats(
+                pitch.getId(), "manager", StatsGranularity.WEEK, MONDAY, MONDAY.plusDays(13));
+
+        List<ManagerStatsResponse.PeriodStats> weeks = stats.getPeriods();
+        assertEquals(2, weeks.size());
+
+        assertEquals(MONDAY, weeks.get(0).getStart());
+        assertEquals(MONDAY.plusDays(6), weeks.get(0).getEnd());
+        assertEquals(2, weeks.get(0).getBookings());
+        assertEquals(150, weeks.get(0).getBookedMinutes());
+        assertEquals(7 * 840, weeks.get(0).getOpenMinutes());
+        assertEquals(100.0, weeks.get(0).getRevenue());
+        assertEquals(150.0 / (7 * 840) * 100, weeks.get(0).getOccupancyRate(), 1e-9);
+        assertEquals(1L, weeks.get(0).getStatusCounts().get(ReservationStatus.PENDING));
+
+        // Durée absente : 60 minutes par défaut, prix absent : 0
+        assertEquals(1, weeks.get(1).getBookings());
+        assertEquals(60, weeks.get(1).getBookedMinutes());
+        assertEquals(0.0, weeks.get(1).getRevenue());
+    }
+
+    private void insert(String pitchId, LocalDate day, Integer duration, Double price, ReservationStatus status) {
+        mongoTemplate.insert(Reservation.builder()
+                .pitchId(pitchId)
+                .day(day)
+                .hour(LocalTime.of(18, 0))
+                .duration(duration)
+                .pitchPrice(price)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,59 @@
+package com.app.sportify_backend.services;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Base des tests exécutés sur un vrai MongoDB : une base au nom aléatoire par classe de test,
+ * supprimée à la fin.
+ * <p>
+ * Serveur : -Dtest.mongodb.uri (par défaut localhost:27017). Sans serveur joignable, les tests
+ * sont ignorés, sauf avec -Dtest.mongodb.required=true où ils échouent : c'est ce que fait le
+ * profil Maven ci, lancé avec un conteneur mongo exposé sur localhost:27017
+ * (docker run -d -p 27017:27017 mongo:7, puis mvn -Pci test).
+ */
+abstract class MongoIntegrationTest {
+
+    protected static MongoClient client;
+    protected static MongoTemplate mongoTemplate;
+    protected static String databaseName;
+
+    @BeforeAll
+    static void connectMongo() {
+        client = MongoClients.create(System.getProperty(
+                "test.mongodb.uri",
+                "mongodb://localhost:27017/?serverSelectionTimeoutMS=1000"
+        ));
+        try {
+            client.getDatabase("admin").runCommand(new Document("ping", 1));
+        } catch (Exception e) {
+            client.close();
+            client = null;
+            if (Boolean.getBoolean("test.mongodb.required")) {
+                fail("MongoDB requis mais non disponible : " + e.getMessage());
+            }
+        }
+        assumeTrue(client != null, "MongoDB non disponible");
+
+        databaseName = "sportify_test_" + UUID.randomUUID().toString().substring(0, 8);
+        mongoTemplate = new MongoTemplate(client, databaseName);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        if (client != null) {
+            client.getDatabase(databaseName).drop();
+            client.close();
+            client = null;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.app.sportify_backend.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetryService retryService = new OptimisticRetryService(meterRegistry, 3, 0);
+
+    @Test
+    void conflictIsRetriedUntilItSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retryService.run("team.leave", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("version");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2.0, meterRegistry.get("concurrency.conflicts").tag("operation", "team.leave").counter().count());
+        assertEquals(2.0, meterRegistry.get("concurrency.retries").tag("operation", "team.leave").counter().count());
+    }
+
+    @Test
+    void retriesAreBounded() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> retryService.run("reservation.cancel", () -> {
+                    attempts.incrementAndGet();
+                    throw new OptimisticLockingFailureException("version");
+                }));
+
+        assertEquals("CONCURRENT_UPDATE", error.getMessage());
+        assertEquals(3, attempts.get());
+        assertEquals(1.0, meterRegistry.get("concurrency.exhausted").tag("operation", "reservation.cancel").counter().count());
+    }
+}
@@ -0,0 +1,133 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox et dispatcher sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class OutboxDispatcherTest extends MongoIntegrationTest {
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private OutboxService outboxService;
+    private OutboxDispatcher dispatcher;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createServices() {
+        mongoTemplate.remove(new Query(), OutboxEvent.class);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxService(mongoTemplate);
+        // Lots de 100, 3 tentatives au plus
+        dispatcher = new OutboxDispatcher(mongoTemplate, notificationService, mock(ChangePropagationService.class),
+                meterRegistry, 100, 5, 3, 60);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scoreOfALargeRosterIsOneEventAndOneInsert() {
+        Team home = mongoTemplate.insert(Team.builder().name("Home").ownerId("captain").members(roster("h", 30)).build());
+        Team away = mongoTemplate.insert(Team.builder().name("Away").ownerId("a0").members(roster("a", 30)).build());
+
+        Reservation reservation = Reservation.builder()
+                .id("reservation-1")
+                .pitchId("pitch")
+                .pitchName("Five Lac")
+                .senderId("h0")
+                .senderTeamId(home.getId())
+                .adverseTeamId(away.getId())
+                .score(Reservation.Score.builder().home(3).away(1).build())
+                .day(LocalDate.of(2026, 3, 2))
+                .hour(LocalTime.of(18, 0))
+                .build();
+        outboxService.publishScoreRecorded(reservation);
+        outboxService.publishNotification("h1", "captain", "Titre", "Message",
+                NotificationType.INVITATION_ACCEPTED, home.getId(), Map.of("teamId", home.getId()));
+
+        // La requête n'a écrit que deux événements, sans aucune notification
+        assertEquals(2, mongoTemplate.count(new Query(), OutboxEvent.class));
+
+        assertEquals(2, dispatcher.dispatchBatch(LocalDateTime.now().plusSeconds(1)));
+
+        ArgumentCaptor<List<Notification>> sent = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).sendAll(sent.capture());
+        // 29 coéquipiers (hors expéditeur), 29 adversaires (hors capitaine adverse), 1 notification simple
+        assertEquals(59, sent.getValue().size());
+        assertTrue(sent.getValue().stream().noneMatch(n -> "h0".equals(n.getRecipientId())));
+        assertTrue(sent.getValue().stream().noneMatch(n -> "a0".equals(n.getRecipientId())));
+
+        assertEquals(2, mongoTemplate.count(
+                Query.query(Criteria.where("status").is(OutboxStatus.DISPATCHED)), OutboxEvent.class));
+        assertEquals(2.0, meterRegistry.get("outbox.dispatched").counter().count());
+
+        // Rien à reprendre au passage suivant
+        assertEquals(0, dispatcher.dispatchBatch(LocalDateTime.now().plusSeconds(1)));
+    }
+
+    @Test
+    void failedEventIsRetriedThenAbandoned() {
+        when(notificationService.sendAll(anyList())).thenThrow(new RuntimeException("WEBSOCKET_DOWN"));
+        outboxService.publishNotification("u1", "u2", "Titre", "Message",
+                NotificationType.INVITATION_ACCEPTED, "team", null);
+
+        LocalDateTime now = LocalDateTime.now().plusSeconds(1);
+        dispatcher.dispatchBatch(now);
+
+        OutboxEvent event = mongoTemplate.findOne(new Query(), OutboxEvent.class);
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertEquals("WEBSOCKET_DOWN", event.getLastError());
+        // Pas encore disponible : aucune nouvelle tentative immédiate
+        assertEquals(0, dispatcher.dispatchBatch(now));
+
+        dispatcher.dispatchBatch(now.plusMinutes(10));
+        dispatcher.dispatchBatch(now.plusMinutes(20));
+
+        event = mongoTemplate.findOne(new Query(), OutboxEvent.class);
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        assertEquals(1.0, meterRegistry.get("outbox.failed").counter().count());
+    }
+
+    @Test
+    void expiredLockIsClaimedAgain() {
+        OutboxEvent event = outboxService.publishNotification("u1", "u2", "Titre", "Message",
+                NotificationType.INVITATION_ACCEPTED, "team", null);
+        // Instance arrêtée en plein traitement
+        event.setStatus(OutboxStatus.PROCESSING);
+        event.setClaimToken("crashed");
+        event.setLockedUntil(LocalDateTime.now().minusSeconds(1));
+        mongoTemplate.save(event);
+
+        assertEquals(1, dispatcher.dispatchBatch(LocalDateTime.now()));
+        assertEquals(OutboxStatus.DISPATCHED, mongoTemplate.findById(event.getId(), OutboxEvent.class).getStatus());
+    }
+
+    private static List<Team.TeamMember> roster(String prefix, int size) {
+        List<Team.TeamMember> members = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            members.add(Team.TeamMember.builder().userId(prefix + i).build());
+        }
+        return members;
+    }
+}
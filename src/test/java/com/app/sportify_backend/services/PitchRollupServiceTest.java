@@ -0,0 +1,112 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.PitchDailyRollup;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rollups journaliers : deltas par transition et vérification, sur un Mongo local
+ * (ignoré si aucun serveur n'est joignable).
+ */
+class PitchRollupServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private static PitchRollupService pitchRollupService;
+
+    @BeforeAll
+    static void setUp() {
+        pitchRollupService = new PitchRollupService(mongoTemplate, new SimpleMeterRegistry(), 30, 90);
+    }
+
+    @Test
+    void transitionsKeepRollupsInLineWithReservations() {
+        String pitchId = "pitch-" + UUID.randomUUID();
+        Reservation confirmed = create(pitchId, 90, 60.0);
+        Reservation cancelled = create(pitchId, 60, 40.0);
+        Reservation expired = create(pitchId, 60, 40.0);
+
+        move(confirmed, ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+        move(cancelled, ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+        move(cancelled, ReservationStatus.CONFIRMED, ReservationStatus.CANCELLED);
+
+        expired.setStatus(ReservationStatus.EXPIRED);
+        mongoTemplate.save(expired);
+        pitchRollupService.recordTransitions(List.of(expired), ReservationStatus.PENDING, ReservationStatus.EXPIRED);
+
+        PitchDailyRollup rollup = rollup(pitchId);
+        assertEquals(1, rollup.getBookings());
+        assertEquals(90, rollup.getBookedMinutes());
+        assertEquals(60.0, rollup.getRevenue());
+        assertEquals(0, rollup.getStatusCounts().get(ReservationStatus.PENDING));
+        assertEquals(1, rollup.getStatusCounts().get(ReservationStatus.CONFIRMED));
+        assertEquals(1, rollup.getStatusCounts().get(ReservationStatus.CANCELLED));
+        assertEquals(1, rollup.getStatusCounts().get(ReservationStatus.EXPIRED));
+
+        // Les deltas suffisent : la vérification ne trouve rien à corriger
+        assertEquals(0, pitchRollupService.check(DAY, DAY));
+    }
+
+    @Test
+    void checkRepairsDriftedAndMissingDays() {
+        String pitchId = "pitch-" + UUID.randomUUID();
+        Reservation reservation = create(pitchId, 60, 40.0);
+        move(reservation, ReservationStatus.PENDING, ReservationStatus.CONFIRMED);
+
+        // Écart ancien (hors de la fenêtre de 5 minutes) et journée jamais comptée
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("pitchId").is(pitchId)),
+                new Update().set("bookings", 7).set("updatedAt", LocalDateTime.now().minusHours(1)),
+                PitchDailyRollup.class);
+        mongoTemplate.insert(Reservation.builder()
+                .pitchId(pitchId)
+                .day(DAY.plusDays(1))
+                .hour(LocalTime.of(18, 0))
+                .duration(60)
+                .status(ReservationStatus.CONFIRMED)
+                .build());
+
+        assertEquals(2, pitchRollupService.check(DAY, DAY.plusDays(1)));
+        assertEquals(1, rollup(pitchId).getBookings());
+        assertEquals(2, pitchRollupService.getRollups(pitchId, DAY, DAY.plusDays(1)).size());
+    }
+
+    private Reservation create(String pitchId, int duration, double price) {
+        Reservation reservation = mongoTemplate.insert(Reservation.builder()
+                .pitchId(pitchId)
+                .day(DAY)
+                .hour(LocalTime.of(18, 0))
+                .duration(duration)
+                .pitchPrice(price)
+                .status(ReservationStatus.PENDING)
+                .build());
+        pitchRollupService.recordTransition(reservation, null, ReservationStatus.PENDING);
+        return reservation;
+    }
+
+    private void move(Reservation reservation, ReservationStatus from, ReservationStatus to) {
+        reservation.setStatus(to);
+        mongoTemplate.save(reservation);
+        pitchRollupService.recordTransition(reservation, from, to);
+    }
+
+    private PitchDailyRollup rollup(String pitchId) {
+        return mongoTemplate.findOne(
+                Query.query(Criteria.where("pitchId").is(pitchId).and("day").is(DAY)),
+                PitchDailyRollup.class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Pitch;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PitchScheduleServiceTest {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2025, 6, 14);
+
+    private final PitchScheduleService service = new PitchScheduleService(100);
+
+    @Test
+    void pitchWithoutHoursUsesDefaultDay() {
+        Pitch pitch = pitch("p1");
+
+        assertTrue(service.isOpen(pitch, SATURDAY, LocalTime.of(8, 0), 60));
+        assertFalse(service.isOpen(pitch, SATURDAY, LocalTime.of(21, 30), 60));
+        assertEquals(60, service.getSchedule(pitch).slotMinutes());
+    }
+
+    @Test
+    void weeklyHoursAndClosuresAreApplied() {
+        Pitch pitch = pitch("p2");
+        pitch.setOpeningHours(List.of(
+                new Pitch.OpeningHours(DayOfWeek.SATURDAY, 18 * 60, 24 * 60),
+                new Pitch.OpeningHours(DayOfWeek.SUNDAY, 0, 2 * 60)
+        ));
+        pitch.setClosedDays(List.of(SATURDAY.plusWeeks(1)));
+        pitch.setSlotMinutes(90);
+
+        // Ouvert jusqu'à 2h du matin : un match à 23h30 peut déborder sur dimanche
+        assertTrue(service.isOpen(pitch, SATURDAY, LocalTime.of(23, 30), 90));
+        assertFalse(service.isOpen(pitch, SATURDAY, LocalTime.of(17, 0), 90));
+        assertFalse(service.isOpen(pitch, SATURDAY.plusDays(2), LocalTime.of(18, 0), 60));
+        assertFalse(service.isOpen(pitch, SATURDAY.plusWeeks(1), LocalTime.of(18, 0), 60));
+        assertEquals(90, service.getSchedule(pitch).slotMinutes());
+    }
+
+    @Test
+    void invalidHoursAreRejected() {
+        Pitch pitch = pitch("p3");
+        pitch.setOpeningHours(List.of(new Pitch.OpeningHours(DayOfWeek.MONDAY, 20 * 60, 8 * 60)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.validate(pitch));
+    }
+
+    private Pitch pitch(String id) {
+        Pitch pitch = new Pitch();
+        pitch.setId(id);
+        return pitch;
+    }
+}
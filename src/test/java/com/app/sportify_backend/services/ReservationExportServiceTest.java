@@ -0,0 +1,100 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.ExportFormat;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Export en streaming sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class ReservationExportServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 1);
+
+    private static ReservationExportService exportService;
+    private static SimpleMeterRegistry meterRegistry;
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Lots de 7 : plusieurs getMore sur le curseur
+        exportService = new ReservationExportService(
+                mongoTemplate, mock(ManagerStatsService.class), objectMapper, meterRegistry, 7);
+
+        // 60 jours, deux créneaux par jour, insérés dans le désordre
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 59; i >= 0; i--) {
+            for (int hour : new int[]{20, 18}) {
+                reservations.add(Reservation.builder()
+                        .pitchId("pitch")
+                        .day(FIRST_DAY.plusDays(i))
+                        .hour(LocalTime.of(hour, 0))
+                        .duration(60)
+                        .pitchPrice(80.0)
+                        .senderTeamName(i == 0 && hour == 18 ? "=HYPERLINK(\"x\"), FC" : "Home")
+                        .adverseTeamName("Away")
+                        .status(hour == 18 ? ReservationStatus.CONFIRMED : ReservationStatus.CANCELLED)
+                        .build());
+            }
+        }
+        reservations.add(Reservation.builder().pitchId("other").day(FIRST_DAY).hour(LocalTime.of(18, 0)).build());
+        mongoTemplate.insert(reservations, Reservation.class);
+    }
+
+    @Test
+    void csvIsSortedFilteredAndEscaped() throws Exception {
+        String csv = export(FIRST_DAY, FIRST_DAY.plusDays(29), null, ExportFormat.CSV);
+        String[] lines = csv.split("\r\n");
+
+        assertEquals(1 + 30 * 2, lines.length);
+        assertEquals("id,day,hour,duration,status,seriesId,senderTeamName,adverseTeamName,pitchPrice,"
+                + "scoreHome,scoreAway,createdAt,updatedAt", lines[0]);
+        // Tri chronologique malgré l'ordre d'insertion, formule neutralisée et champ entre guillemets
+        String first = lines[1].substring(lines[1].indexOf(','));
+        assertEquals(",2026-01-01,18:00,60,CONFIRMED,,\"'=HYPERLINK(\"\"x\"\"), FC\",Away,80.0,,,,", first);
+        assertEquals(",2026-01-01,20:00", lines[2].substring(lines[2].indexOf(','), lines[2].indexOf(',') + 17));
+        assertEquals(",2026-01-30,20:00", lines[60].substring(lines[60].indexOf(','), lines[60].indexOf(',') + 17));
+    }
+
+    @Test
+    void formulaPrefixesAreNeutralised() {
+        assertEquals("'=1+1", ReservationExportService.csvField("=1+1"));
+        assertEquals("'\t=1+1", ReservationExportService.csvField("\t=1+1"));
+        assertEquals("\"'\r=1+1\"", ReservationExportService.csvField("\r=1+1"));
+        assertEquals("FC Tunis", ReservationExportService.csvField("FC Tunis"));
+    }
+
+    @Test
+    void ndjsonFiltersOnStatus() throws Exception {
+        String ndjson = export(null, null, List.of(ReservationStatus.CONFIRMED), ExportFormat.NDJSON);
+        String[] lines = ndjson.split("\n");
+
+        assertEquals(60, lines.length);
+        JsonNode last = objectMapper.readTree(lines[59]);
+        assertEquals("2026-03-01", last.get("day").asString());
+        assertEquals("CONFIRMED", last.get("status").asString());
+    }
+
+    private static String export(LocalDate from, LocalDate to, List<ReservationStatus> statuses, ExportFormat format)
+            throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export("pitch", "manager", from, to, statuses, format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
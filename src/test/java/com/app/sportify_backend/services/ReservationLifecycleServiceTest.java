@@ -0,0 +1,87 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Notification;
+import com.app.sportify_backend.models.NotificationType;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Expiration / complétion par lots sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class ReservationLifecycleServiceTest extends MongoIntegrationTest {
+
+    @Test
+    void pastReservationsAreTransitionedInBatches() {
+        NotificationService notificationService = mock(NotificationService.class);
+        ReservationService reservationService = mock(ReservationService.class);
+        ReservationLifecycleService lifecycle =
+                new ReservationLifecycleService(mongoTemplate, notificationService, reservationService,
+                        mock(PitchRollupService.class), 2, 20);
+
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 20, 0);
+
+        for (int i = 0; i < 5; i++) {
+            insert(ReservationStatus.PENDING, now.minusDays(1).plusHours(i), 60, null);
+        }
+        String upcoming = insert(ReservationStatus.PENDING, now.plusHours(1), 60, null);
+        String finished = insert(ReservationStatus.CONFIRMED, now.minusHours(3), 90, null);
+        String running = insert(ReservationStatus.CONFIRMED, now.minusMinutes(30), 90, null);
+        String scored = insert(ReservationStatus.CONFIRMED, now.minusHours(2), 60,
+                Reservation.Score.builder().home(2).away(1).build());
+
+        assertEquals(5, lifecycle.expirePending(now));
+        assertEquals(2, lifecycle.completeFinished(now));
+
+        assertEquals(ReservationStatus.PENDING, statusOf(upcoming));
+        assertEquals(ReservationStatus.COMPLETED, statusOf(finished));
+        assertEquals(ReservationStatus.CONFIRMED, statusOf(running));
+        assertEquals(ReservationStatus.COMPLETED, statusOf(scored));
+
+        // 5 expirations par lots de 2 : trois insertMany de notifications
+        ArgumentCaptor<List<Notification>> batches = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, atLeastOnce()).sendAll(batches.capture());
+        long expiredNotifications = batches.getAllValues().stream()
+                .flatMap(List::stream)
+                .filter(n -> n.getType() == NotificationType.RESERVATION_EXPIRED)
+                .count();
+        assertEquals(5, expiredNotifications);
+        assertTrue(batches.getAllValues().stream().allMatch(batch -> batch.size() <= 2));
+
+        verify(reservationService, times(1)).onMatchCompleted(any());
+
+        // Deuxième passage : plus rien à faire
+        assertEquals(0, lifecycle.expirePending(now));
+        assertEquals(0, lifecycle.completeFinished(now));
+    }
+
+    private String insert(ReservationStatus status, LocalDateTime start, int duration, Reservation.Score score) {
+        return mongoTemplate.insert(Reservation.builder()
+                .pitchId("pitch-1")
+                .pitchName("Terrain")
+                .day(start.toLocalDate())
+                .hour(start.toLocalTime())
+                .duration(duration)
+                .senderId("sender")
+                .receiverId("manager")
+                .status(status)
+                .score(score)
+                .build()).getId();
+    }
+
+    private ReservationStatus statusOf(String id) {
+        return mongoTemplate.findById(id, Reservation.class).getStatus();
+    }
+}
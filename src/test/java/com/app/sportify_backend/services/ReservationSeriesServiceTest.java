@@ -0,0 +1,156 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.ReservationSeriesResponse;
+import com.app.sportify_backend.models.*;
+import com.app.sportify_backend.repositories.PitchRepository;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Séries hebdomadaires sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class ReservationSeriesServiceTest extends MongoIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusWeeks(1);
+
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final SlotOccupancyService slotOccupancyService = mock(SlotOccupancyService.class);
+    private ReservationSeriesService service;
+    private Pitch pitch;
+    private String homeTeamId;
+    private String awayTeamId;
+
+    @BeforeAll
+    static void setUp() {
+        IndexOperations indexOps = mongoTemplate.indexOps(PitchSlot.class);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(PitchSlot.class)
+                .forEach(indexOps::createIndex);
+    }
+
+    @BeforeEach
+    void createService() {
+        pitch = new Pitch();
+        pitch.setId("pitch-" + UUID.randomUUID());
+        pitch.setName("Five Lac");
+        pitch.setCreatedBy("manager");
+        pitch.setPrice(50.0);
+
+        Team home = Team.builder().id("home-" + UUID.randomUUID()).name("Home").ownerId("captain").build();
+        Team away = Team.builder().id("away-" + UUID.randomUUID()).name("Away").ownerId("other").build();
+
+        TeamRepository teamRepository = mock(TeamRepository.class);
+        when(teamRepository.findById(home.getId())).thenReturn(Optional.of(home));
+        when(teamRepository.findById(away.getId())).thenReturn(Optional.of(away));
+        PitchRepository pitchRepository = mock(PitchRepository.class);
+        when(pitchRepository.findById(pitch.getId())).thenReturn(Optional.of(pitch));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById("manager")).thenReturn(Optional.of(new User()));
+        when(slotOccupancyService.findConflicts(anyList())).thenReturn(List.of());
+
+        service = new ReservationSeriesService(
+                teamRepository,
+                pitchRepository,
+                userRepository,
+                notificationService,
+                slotOccupancyService,
+                new SlotClaimService(mongoTemplate),
+                new PitchScheduleService(100),
+                new PitchRollupService(mongoTemplate, new SimpleMeterRegistry(), 30, 90),
+                mongoTemplate
+        );
+
+        homeTeamId = home.getId();
+        awayTeamId = away.getId();
+    }
+
+    @Test
+    void seriesIsConfirmedAsAWholeOrNotAtAll() {
+        ReservationSeriesResponse series = service.createSeries(
+                homeTeamId, awayTeamId, pitch.getId(), FIRST_DAY, LocalTime.of(20, 0), 60, 4, "captain");
+
+        assertEquals(4, series.getOccurrences().size());
+        assertEquals(FIRST_DAY.plusWeeks(3), series.getLastDay());
+        assertEquals(4, countOccurrences(series.getId(), ReservationStatus.PENDING));
+        // Une seule notification pour toute la série
+        verify(notificationService, times(1)).send(
+                any(), any(), any(), any(), any(), any(), any());
+
+        // La troisième semaine est déjà prise : rien n'est confirmé
+        mongoTemplate.insert(PitchSlot.builder()
+                .pitchId(pitch.getId())
+                .day(FIRST_DAY.plusWeeks(2))
+                .slot(20 * 60 / SlotClaimService.SLOT_MINUTES + 6)
+                .reservationId("other")
+                .claimId("other")
+                .build());
+
+        RuntimeException conflict = assertThrows(RuntimeException.class,
+                () -> service.confirmSeries(series.getId(), "manager"));
+        assertEquals("TIME_SLOT_ALREADY_BOOKED", conflict.getMessage());
+        assertEquals(4, countOccurrences(series.getId(), ReservationStatus.PENDING));
+        assertEquals(ReservationStatus.PENDING, service.getSeries(series.getId(), "manager").getStatus());
+        assertEquals(1, mongoTemplate.count(
+                Query.query(Criteria.where("pitchId").is(pitch.getId())), PitchSlot.class));
+
+        mongoTemplate.remove(Query.query(Criteria.where("claimId").is("other")), PitchSlot.class);
+
+        ReservationSeriesResponse confirmed = service.confirmSeries(series.getId(), "manager");
+        assertEquals(ReservationStatus.CONFIRMED, confirmed.getStatus());
+        assertEquals(4, countOccurrences(series.getId(), ReservationStatus.CONFIRMED));
+        assertEquals(4 * 12, mongoTemplate.count(
+                Query.query(Criteria.where("pitchId").is(pitch.getId())), PitchSlot.class));
+
+        RuntimeException again = assertThrows(RuntimeException.class,
+                () -> service.rejectSeries(series.getId(), "manager"));
+        assertEquals("RESERVATION_ALREADY_PROCESSED", again.getMessage());
+    }
+
+    @Test
+    void rejectingSeriesRejectsPendingOccurrences() {
+        ReservationSeriesResponse series = service.createSeries(
+                homeTeamId, awayTeamId, pitch.getId(), FIRST_DAY, LocalTime.of(18, 0), 90, 3, "captain");
+
+        ReservationSeriesResponse rejected = service.rejectSeries(series.getId(), "manager");
+
+        assertEquals(ReservationStatus.REJECTED, rejected.getStatus());
+        assertEquals(3, countOccurrences(series.getId(), ReservationStatus.REJECTED));
+        assertTrue(rejected.getOccurrences().stream().allMatch(r -> series.getId().equals(r.getSeriesId())));
+
+        PitchDailyRollup rollup = mongoTemplate.findOne(
+                Query.query(Criteria.where("pitchId").is(pitch.getId()).and("day").is(FIRST_DAY)),
+                PitchDailyRollup.class);
+        assertEquals(0, rollup.getStatusCounts().get(ReservationStatus.PENDING));
+        assertEquals(1, rollup.getStatusCounts().get(ReservationStatus.REJECTED));
+    }
+
+    private long countOccurrences(String seriesId, ReservationStatus status) {
+        return mongoTemplate.count(
+                Query.query(Criteria.where("seriesId").is(seriesId).and("status").is(status)),
+                Reservation.class);
+    }
+}
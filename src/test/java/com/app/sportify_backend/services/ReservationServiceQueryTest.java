@@ -0,0 +1,88 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.dto.CursorPage;
+import com.app.sportify_backend.dto.ReservationResponse;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.repositories.PitchRepository;
+import com.app.sportify_backend.repositories.ReservationRepository;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.repositories.TeamStatsRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceQueryTest {
+
+    @Mock private ReservationRepository reservationRepository;
+    @Mock private TeamRepository teamRepository;
+    @Mock private PitchRepository pitchRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private NotificationService notificationService;
+    @Mock private TeamStatsRepository teamStatsRepository;
+    @Mock private SlotOccupancyService slotOccupancyService;
+    @Mock private SlotClaimService slotClaimService;
+    @Mock private PitchScheduleService pitchScheduleService;
+    @Mock private MongoTemplate mongoTemplate;
+    @Mock private TeamStatsService teamStatsService;
+    @Mock private PitchRollupService pitchRollupService;
+    @Mock private OutboxService outboxService;
+    @Mock private OptimisticRetryService optimisticRetryService;
+
+    @InjectMocks
+    private ReservationService service;
+
+    @Test
+    void reservationsByStatusUseTwoQueriesWhateverTheNumberOfTeams() {
+        List<Team> teams = new ArrayList<>();
+        IntStream.range(0, 25).forEach(i -> teams.add(Team.builder().id("team-" + i).build()));
+        when(mongoTemplate.find(any(Query.class), eq(Team.class))).thenReturn(teams);
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Reservation.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+
+        CursorPage<ReservationResponse> page = service.getReservationsByStatus("confirmed", "user-1", null, null);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(mongoTemplate, times(1)).find(any(Query.class), eq(Team.class));
+
+        ArgumentCaptor<TypedAggregation<Reservation>> aggregation = ArgumentCaptor.forClass(TypedAggregation.class);
+        verify(mongoTemplate, times(1)).aggregate(aggregation.capture(), eq(Reservation.class));
+        String pipeline = aggregation.getValue().toString();
+        teams.forEach(team -> assertTrue(pipeline.contains(team.getId())));
+
+        verifyNoInteractions(reservationRepository, teamRepository);
+    }
+
+    @Test
+    void unknownStatusIsRejectedBeforeAnyQuery() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.getReservationsByStatus("unknown", "user-1", null, null));
+
+        assertEquals("INVALID_STATUS", e.getMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+}
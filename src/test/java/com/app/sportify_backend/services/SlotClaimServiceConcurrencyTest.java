@@ -0,0 +1,159 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.PitchSlot;
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confirmations concurrentes sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class SlotClaimServiceConcurrencyTest extends MongoIntegrationTest {
+
+    private static final int THREADS = 200;
+
+    private static SlotClaimService slotClaimService;
+
+    @BeforeAll
+    static void setUp() {
+        IndexOperations indexOps = mongoTemplate.indexOps(PitchSlot.class);
+        IndexResolver.create(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(PitchSlot.class)
+                .forEach(indexOps::createIndex);
+
+        slotClaimService = new SlotClaimService(mongoTemplate);
+    }
+
+    @Test
+    void overlappingConfirmationsProduceSingleBooking() throws Exception {
+        String pitchId = "pitch-" + UUID.randomUUID();
+        LocalDate day = LocalDate.now().plusDays(3);
+
+        // Chaque demande chevauche les autres : début entre 18h00 et 18h55, sur 90 minutes
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            reservations.add(mongoTemplate.insert(Reservation.builder()
+                    .pitchId(pitchId)
+                    .day(day)
+                    .hour(LocalTime.of(18, 0).plusMinutes((i % 12) * 5L))
+                    .duration(90)
+                    .status(ReservationStatus.PENDING)
+                    .build()));
+        }
+
+        AtomicInteger confirmed = runConcurrently(reservations);
+
+        assertEquals(1, confirmed.get());
+        assertEquals(1, mongoTemplate.count(
+                Query.query(Criteria.where("pitchId").is(pitchId).and("status").is(ReservationStatus.CONFIRMED)),
+                Reservation.class));
+
+        Reservation winner = mongoTemplate.findOne(
+                Query.query(Criteria.where("pitchId").is(pitchId).and("status").is(ReservationStatus.CONFIRMED)),
+                Reservation.class);
+        List<PitchSlot> slots = mongoTemplate.find(
+                Query.query(Criteria.where("pitchId").is(pitchId)), PitchSlot.class);
+
+        assertEquals(90 / SlotClaimService.SLOT_MINUTES, slots.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getReservationId().equals(winner.getId())));
+    }
+
+    @Test
+    void retriedConfirmationOfSameReservationSucceedsOnce() throws Exception {
+        Reservation reservation = mongoTemplate.insert(Reservation.builder()
+                .pitchId("pitch-" + UUID.randomUUID())
+                .day(LocalDate.now().plusDays(3))
+                .hour(LocalTime.of(20, 0))
+                .duration(60)
+                .status(ReservationStatus.PENDING)
+                .build());
+
+        List<Reservation> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            attempts.add(mongoTemplate.findById(reservation.getId(), Reservation.class));
+        }
+
+        AtomicInteger confirmed = runConcurrently(attempts);
+
+        assertEquals(1, confirmed.get());
+        assertEquals(60 / SlotClaimService.SLOT_MINUTES, mongoTemplate.count(
+                Query.query(Criteria.where("reservationId").is(reservation.getId())), PitchSlot.class));
+    }
+
+    @Test
+    void orphanedSlotsAreSweptAndNoLongerBlockTheTerrain() {
+        String pitchId = "pitch-" + UUID.randomUUID();
+        LocalDate day = LocalDate.now().plusDays(3);
+
+        // Tranches prises il y a dix minutes par une confirmation qui n'est jamais allée au bout
+        Reservation abandoned = mongoTemplate.insert(Reservation.builder()
+                .pitchId(pitchId).day(day).hour(LocalTime.of(18, 0)).duration(60)
+                .status(ReservationStatus.PENDING)
+                .build());
+        slotClaimService.claim(abandoned);
+        mongoTemplate.updateMulti(Query.query(Criteria.where("reservationId").is(abandoned.getId())),
+                new Update().set("createdAt", LocalDateTime.now().minusMinutes(10)), PitchSlot.class);
+
+        Reservation next = mongoTemplate.insert(Reservation.builder()
+                .pitchId(pitchId).day(day).hour(LocalTime.of(18, 30)).duration(60)
+                .status(ReservationStatus.PENDING)
+                .build());
+        slotClaimService.confirm(next, ReservationStatus.PENDING);
+
+        List<PitchSlot> slots = mongoTemplate.find(Query.query(Criteria.where("pitchId").is(pitchId)), PitchSlot.class);
+        assertEquals(60 / SlotClaimService.SLOT_MINUTES, slots.size());
+        assertTrue(slots.stream().allMatch(slot -> slot.getReservationId().equals(next.getId())));
+
+        // Les tranches d'une réservation confirmée ne sont jamais nettoyées
+        assertEquals(0, slotClaimService.sweepOrphans(pitchId, LocalDateTime.now().plusMinutes(1)));
+    }
+
+    private AtomicInteger runConcurrently(List<Reservation> reservations) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(reservations.size());
+        AtomicInteger confirmed = new AtomicInteger();
+
+        for (Reservation reservation : reservations) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    slotClaimService.confirm(reservation, ReservationStatus.PENDING);
+                    confirmed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    // TIME_SLOT_ALREADY_BOOKED / RESERVATION_ALREADY_PROCESSED attendus
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        return confirmed;
+    }
+}
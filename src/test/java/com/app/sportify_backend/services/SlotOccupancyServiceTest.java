@@ -0,0 +1,64 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.repositories.ReservationRepository;
+import com.app.sportify_backend.utils.DayOccupancy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SlotOccupancyServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 16);
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final SlotOccupancyService service =
+            new SlotOccupancyService(reservationRepository, new SimpleMeterRegistry(), 1000, 30);
+
+    @Test
+    void weekOfSeveralPitchesIsLoadedInOneQuery() {
+        when(reservationRepository.findSlotsByPitchIdInAndStatusAndDayRange(
+                any(), eq(ReservationStatus.CONFIRMED), eq(MONDAY.minusDays(1)), eq(MONDAY.plusDays(6))))
+                .thenReturn(List.of(
+                        confirmed("p1", MONDAY.minusDays(1), LocalTime.of(23, 0), 120),
+                        confirmed("p2", MONDAY.plusDays(2), LocalTime.of(18, 0), 90)
+                ));
+
+        Map<SlotOccupancyService.DayKey, DayOccupancy> week =
+                service.getOccupancies(List.of("p1", "p2"), MONDAY, MONDAY.plusDays(6));
+
+        assertEquals(14, week.size());
+        // Débordement du dimanche soir sur le lundi matin
+        assertFalse(week.get(new SlotOccupancyService.DayKey("p1", MONDAY)).isFree(0, 60));
+        assertTrue(week.get(new SlotOccupancyService.DayKey("p1", MONDAY)).isFree(60, 120));
+        assertFalse(service.isAvailable("p2", MONDAY.plusDays(2), LocalTime.of(19, 0), 60));
+
+        verify(reservationRepository, times(1))
+                .findSlotsByPitchIdInAndStatusAndDayRange(any(), any(), any(), any());
+    }
+
+    private Reservation confirmed(String pitchId, LocalDate day, LocalTime hour, int duration) {
+        return Reservation.builder()
+                .pitchId(pitchId)
+                .day(day)
+                .hour(hour)
+                .duration(duration)
+                .status(ReservationStatus.CONFIRMED)
+                .build();
+    }
+}
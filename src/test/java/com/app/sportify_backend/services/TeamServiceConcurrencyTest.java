@@ -0,0 +1,85 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Team;
+import com.app.sportify_backend.models.User;
+import com.app.sportify_backend.repositories.TeamRepository;
+import com.app.sportify_backend.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Départs simultanés d'une équipe sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class TeamServiceConcurrencyTest extends MongoIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void simultaneousDeparturesAreAllKept() throws Exception {
+        TeamRepository teamRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(TeamRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyString())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            user.setFirstname("Joueur");
+            user.setLastname(invocation.getArgument(0));
+            return Optional.of(user);
+        });
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TeamService teamService = new TeamService(
+                teamRepository,
+                userRepository,
+                mock(NotificationService.class),
+                mock(ChangePropagationService.class),
+                new OptimisticRetryService(meterRegistry, 2 * THREADS, 5),
+                mock(UserUpdateService.class)
+        );
+
+        List<Team.TeamMember> members = new ArrayList<>();
+        for (int i = 0; i < THREADS + 1; i++) {
+            members.add(Team.TeamMember.builder().userId("player-" + i).build());
+        }
+        Team team = teamRepository.save(Team.builder().name("FC").ownerId("owner").members(members).build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> departures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String userId = "player-" + i;
+            departures.add(executor.submit(() -> {
+                start.await();
+                teamService.leaveTeam(team.getId(), userId);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> departure : departures) {
+            departure.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Sans version, un save concurrent remettait dans l'équipe un joueur déjà parti
+        Team updated = teamRepository.findById(team.getId()).orElseThrow();
+        assertEquals(1, updated.getMembers().size());
+        assertEquals("player-" + THREADS, updated.getMembers().get(0).getUserId());
+        assertEquals(THREADS, updated.getVersion());
+        assertTrue(meterRegistry.find("concurrency.exhausted").counters().isEmpty());
+    }
+}
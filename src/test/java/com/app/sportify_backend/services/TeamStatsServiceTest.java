@@ -0,0 +1,135 @@
+package com.app.sportify_backend.services;
+
+import com.app.sportify_backend.models.Reservation;
+import com.app.sportify_backend.models.ReservationStatus;
+import com.app.sportify_backend.models.TeamStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Deltas et réconciliation de team_stats sur un Mongo local (ignoré si aucun serveur n'est joignable).
+ */
+class TeamStatsServiceTest extends MongoIntegrationTest {
+
+    private static TeamStatsService teamStatsService;
+
+    @BeforeAll
+    static void setUp() {
+        teamStatsService = new TeamStatsService(mongoTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void correctedScoreReplacesPreviousContribution() {
+        String home = "home-" + UUID.randomUUID();
+        String away = "away-" + UUID.randomUUID();
+
+        Reservation match = completed(home, away, 2, 1);
+        teamStatsService.applyChange(match, ReservationStatus.CONFIRMED, null);
+
+        // Correction 2-1 -> 1-1
+        Reservation.Score previous = match.getScore();
+        match.setScore(Reservation.Score.builder().home(1).away(1).build());
+        teamStatsService.applyChange(match, ReservationStatus.COMPLETED, previous);
+
+        TeamStats homeStats = stats(home);
+        assertEquals(1, homeStats.getPlayed());
+        assertEquals(0, homeStats.getWins());
+        assertEquals(1, homeStats.getDraws());
+        assertEquals(1, homeStats.getGoalsScored());
+        assertEquals(0, homeStats.getGoalDifference());
+        assertEquals(0.0, homeStats.getWinRate());
+
+        TeamStats awayStats = stats(away);
+        assertEquals(1, awayStats.getPlayed());
+        assertEquals(0, awayStats.getLosses());
+        assertEquals(1, awayStats.getDraws());
+
+        // Match annulé après coup : sa contribution disparaît
+        match.setStatus(ReservationStatus.CANCELLED);
+        teamStatsService.applyChange(match, ReservationStatus.COMPLETED, match.getScore());
+        assertEquals(0, stats(home).getPlayed());
+        assertEquals(0, stats(away).getGoalsConceded());
+    }
+
+    @Test
+    void reconciliationRepairsDriftedStats() {
+        String home = "rec-home-" + UUID.randomUUID();
+        String away = "rec-away-" + UUID.randomUUID();
+
+        mongoTemplate.insert(completed(home, away, 3, 0));
+        mongoTemplate.insert(completed(away, home, 2, 2));
+        mongoTemplate.insert(TeamStats.builder()
+                .teamId(home)
+                .played(7)
+                .wins(7)
+                .updatedAt(LocalDateTime.now().minusDays(1))
+                .build());
+        mongoTemplate.insert(TeamStats.builder()
+                .teamId("ghost-" + UUID.randomUUID())
+                .played(2)
+                .updatedAt(LocalDateTime.now().minusDays(1))
+                .build());
+
+        teamStatsService.reconcile();
+
+        TeamStats homeStats = stats(home);
+        assertEquals(2, homeStats.getPlayed());
+        assertEquals(1, homeStats.getWins());
+        assertEquals(1, homeStats.getDraws());
+        assertEquals(5, homeStats.getGoalsScored());
+        assertEquals(2, homeStats.getGoalsConceded());
+        assertEquals(50.0, homeStats.getWinRate());
+
+        TeamStats awayStats = stats(away);
+        assertEquals(2, awayStats.getPlayed());
+        assertEquals(1, awayStats.getLosses());
+        assertEquals(-3, awayStats.getGoalDifference());
+
+        assertEquals(0, mongoTemplate.count(
+                Query.query(Criteria.where("teamId").regex("^ghost-").and("played").ne(0)), TeamStats.class));
+
+        // Deuxième passage : plus rien à corriger
+        assertEquals(0, teamStatsService.reconcile());
+    }
+
+    @Test
+    void legacyStatsGetTheirPointsAtStartup() {
+        String teamId = "legacy-" + UUID.randomUUID();
+        // Document antérieur au champ points, écrit tel quel
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(TeamStats.class))
+                .insertOne(new Document("teamId", teamId).append("played", 5).append("wins", 3).append("draws", 1));
+
+        teamStatsService.backfill();
+
+        assertEquals(10, stats(teamId).getPoints());
+        assertEquals(0, mongoTemplate.count(Query.query(Criteria.where("points").exists(false)), TeamStats.class));
+    }
+
+    private Reservation completed(String senderTeamId, String adverseTeamId, int home, int away) {
+        return Reservation.builder()
+                .pitchId("pitch-1")
+                .day(LocalDate.of(2026, 3, 1))
+                .hour(LocalTime.of(18, 0))
+                .duration(60)
+                .senderTeamId(senderTeamId)
+                .adverseTeamId(adverseTeamId)
+                .status(ReservationStatus.COMPLETED)
+                .score(Reservation.Score.builder().home(home).away(away).build())
+                .build();
+    }
+
+    private TeamStats stats(String teamId) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("teamId").is(teamId)), TeamStats.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.app.sportify_backend.utils;
+
+import com.app.sportify_backend.services.SlotOccupancyService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DayOccupancyTest {
+
+    @Test
+    void longMatchBlocksFollowingHour() {
+        DayOccupancy occupancy = new DayOccupancy();
+        occupancy.occupy(18 * 60, 18 * 60 + 90);
+
+        assertFalse(occupancy.isFree(19 * 60, 20 * 60));
+        assertFalse(occupancy.isFree(17 * 60, 18 * 60 + 1));
+        assertTrue(occupancy.isFree(17 * 60, 18 * 60));
+        assertTrue(occupancy.isFree(19 * 60 + 30, 20 * 60 + 30));
+    }
+
+    @Test
+    void tryOccupyRefusesOverlap() {
+        DayOccupancy occupancy = new DayOccupancy();
+
+        assertTrue(occupancy.tryOccupy(600, 660));
+        assertFalse(occupancy.tryOccupy(630, 690));
+        assertEquals(60, occupancy.occupiedMinutes());
+
+        occupancy.release(600, 660);
+        assertTrue(occupancy.tryOccupy(630, 690));
+    }
+
+    @Test
+    void slotStringMarksPartiallyBusySlots() {
+        DayOccupancy occupancy = new DayOccupancy();
+        occupancy.occupy(9 * 60 + 30, 10 * 60 + 30);
+
+        assertEquals("1001", occupancy.toSlotString(DayTemplate.of(new int[]{8 * 60, 12 * 60}), 60));
+    }
+
+    @Test
+    void closedMinutesAreNeverFree() {
+        DayOccupancy occupancy = new DayOccupancy();
+        DayTemplate splitDay = DayTemplate.of(new int[]{8 * 60, 12 * 60}, new int[]{14 * 60, 18 * 60});
+
+        // Pause de midi fermée, créneaux de 120 minutes alignés sur 08:00
+        assertEquals("11011", occupancy.toSlotString(splitDay, 120));
+        assertFalse(splitDay.isOpen(11 * 60, 13 * 60));
+        assertEquals("", occupancy.toSlotString(DayTemplate.CLOSED, 60));
+    }
+
+    @Test
+    void invalidRangeIsRejected() {
+        DayOccupancy occupancy = new DayOccupancy();
+
+        assertThrows(IllegalArgumentException.class, () -> occupancy.isFree(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> occupancy.occupy(0, DayOccupancy.MINUTES_PER_DAY + 1));
+    }
+
+    @Test
+    void lateMatchSpillsOverMidnight() {
+        LocalDate day = LocalDate.of(2025, 6, 14);
+
+        List<SlotOccupancyService.Segment> segments =
+                SlotOccupancyService.segments(day, LocalTime.of(23, 0), 90);
+
+        assertEquals(List.of(
+                new SlotOccupancyService.Segment(day, 23 * 60, DayOccupancy.MINUTES_PER_DAY),
+                new SlotOccupancyService.Segment(day.plusDays(1), 0, 30)
+        ), segments);
+    }
+}
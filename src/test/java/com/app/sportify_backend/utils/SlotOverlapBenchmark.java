@@ -0,0 +1,82 @@
+package com.app.sportify_backend.utils;
+
+import com.app.sportify_backend.models.Reservation;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare la détection de chevauchement via DayOccupancy avec un parcours des réservations du jour,
+ * c'est-à-dire le traitement fait après un findByPitchIdAndDay. Le parcours est mesuré sans
+ * l'aller-retour Mongo : l'écart réel est donc plus grand que celui affiché.
+ * Lancement : exécuter main() depuis l'IDE ou avec le classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotOverlapBenchmark {
+
+    @Param({"8", "48"})
+    public int reservationsPerDay;
+
+    private DayOccupancy occupancy;
+    private List<Reservation> reservations;
+    private int probeStart;
+    private int probeEnd;
+
+    @Setup
+    public void setUp() {
+        occupancy = new DayOccupancy();
+        reservations = new ArrayList<>();
+
+        LocalDate day = LocalDate.of(2025, 6, 14);
+        int step = DayOccupancy.MINUTES_PER_DAY / reservationsPerDay;
+        for (int i = 0; i < reservationsPerDay; i++) {
+            int start = i * step;
+            int duration = Math.max(step / 2, 1);
+            occupancy.occupy(start, start + duration);
+            reservations.add(Reservation.builder()
+                    .day(day)
+                    .hour(LocalTime.of(start / 60, start % 60))
+                    .duration(duration)
+                    .build());
+        }
+
+        // Créneau libre en fin de journée : le pire cas pour le parcours
+        probeStart = (reservationsPerDay - 1) * step + step / 2;
+        probeEnd = Math.min(probeStart + step / 2, DayOccupancy.MINUTES_PER_DAY);
+    }
+
+    @Benchmark
+    public boolean bitmap() {
+        return occupancy.isFree(probeStart, probeEnd);
+    }
+
+    @Benchmark
+    public boolean listScan() {
+        for (Reservation reservation : reservations) {
+            int start = reservation.getHour().getHour() * 60 + reservation.getHour().getMinute();
+            int end = start + reservation.getDuration();
+            if (start < probeEnd && probeStart < end) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotOverlapBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}